@@ -0,0 +1,702 @@
+package com.ivankatalenic.java.xml.binder;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.*;
+import java.util.*;
+
+/**
+ * Writes a bound object graph into a compact binary snapshot, and reads it back without parsing any XML.
+ * <p>
+ * The snapshot starts with a header: a magic number, the format version, a fingerprint of the destination classes,
+ * and a source key that identifies the document the graph was bound from.
+ * The header is followed by the values in the depth-first order of the graph.
+ * The values are written as their static types (the types of the fields, the record components and the array components) dictate,
+ * so that the snapshot holds no class names, only the data:
+ * <ul>
+ *     <li>the primitives are written as they are</li>
+ *     <li>the other values are prefixed with a tag: <code>null</code>, a value, or a reference to a previous value</li>
+ *     <li>the values of the built-in parser types are written in a binary form, e.g. an <code>Instant</code> as the seconds and the nanoseconds</li>
+ *     <li>the enum constants are written as their ordinals</li>
+ *     <li>the values of the sealed types are prefixed with the index of their subtype</li>
+ *     <li>the arrays are written as their length and their elements,
+ *     the records as their components, and the classes as their public fields</li>
+ * </ul>
+ * An array, a record, or a class instance that is reachable more than once is written only once,
+ * and the later occurrences reference it, so that the instances shared by <code>@XMLIdRef</code> and <code>@XMLDeduplicate</code>
+ * (and the cycles between class instances) are still shared after reading the snapshot.
+ * A record on a reference cycle can't be written, since it can only be created after its components.
+ * <p>
+ * The fingerprint covers everything that determines how a document is bound or how the snapshot is laid out:
+ * the names and the types of the members of every reachable class, their annotations, the enum constants, and the permitted subtypes.
+ * Any change to the destination classes therefore invalidates the snapshots written before it.
+ */
+final class BinarySnapshot {
+	private static final int MAGIC = 0x58424E53; // "XBNS"
+	private static final int FORMAT_VERSION = 1;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final byte TAG_NULL = 0;
+	private static final byte TAG_VALUE = 1;
+	private static final byte TAG_REFERENCE = 2;
+
+	/**
+	 * The built-in parser types whose values are written in a binary form.
+	 */
+	private static final Set<Class<?>> VALUE_TYPES = Set.of(
+			String.class, CharSequence.class, byte[].class,
+			Integer.class, Short.class, Long.class, Float.class, Double.class, Byte.class, Character.class, Boolean.class,
+			URL.class, UUID.class, BigDecimal.class, BigInteger.class,
+			Instant.class, LocalDate.class, LocalDateTime.class, OffsetDateTime.class, ZonedDateTime.class, Duration.class
+	);
+
+	private final Binder binder;
+	/**
+	 * The subtypes of the sealed types, ordered by their names so that their indices don't depend on the order of discovery.
+	 */
+	private final Map<Class<?>, Class<?>[]> subtypes = new HashMap<>();
+	private final Map<Class<?>, Method[]> accessors = new HashMap<>();
+
+	BinarySnapshot(Binder binder) {
+		this.binder = binder;
+	}
+
+	void write(Object bound, OutputStream output, String sourceKey) throws BinderException {
+		if (output == null) {
+			throw new BinderException("the snapshot output cannot be null");
+		}
+		final var out = new DataOutputStream(new BufferedOutputStream(output, BUFFER_SIZE));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			out.writeLong(fingerprint(bound.getClass()));
+			writeString(out, sourceKey);
+			new Writer(out).writeValue(bound, bound.getClass());
+			out.flush();
+		} catch (IOException e) {
+			throw new BinderException("failed to write a snapshot of %s".formatted(bound.getClass().getName()), e);
+		}
+	}
+
+	/**
+	 * @param sourceKey The key of the document the snapshot must have been written from, or <code>null</code> to accept any document.
+	 * @param size The size of the snapshot in bytes, or <code>-1</code> if it's unknown.
+	 *             The array lengths are checked against the bytes left in the snapshot only if the size is known.
+	 * @throws BinderException If the snapshot wasn't written for the <code>destClass</code> as it is now,
+	 *                         nor from the document identified by the <code>sourceKey</code>, or if the snapshot is corrupted.
+	 */
+	<T> T read(InputStream input, Class<T> destClass, String sourceKey, long size) throws BinderException {
+		if (input == null) {
+			throw new BinderException("the snapshot input cannot be null");
+		}
+		final var counted = new CountingInputStream(new BufferedInputStream(input, BUFFER_SIZE));
+		final var in = new DataInputStream(counted);
+		try {
+			if (in.readInt() != MAGIC) {
+				throw new BinderException("failed to read a snapshot: the input isn't a snapshot");
+			}
+			final var version = in.readInt();
+			if (version != FORMAT_VERSION) {
+				throw new BinderException("failed to read a snapshot: the format version %d isn't supported".formatted(version));
+			}
+			if (in.readLong() != fingerprint(destClass)) {
+				throw new BinderException("failed to read a snapshot of %s: the snapshot was written for a different version of the class".formatted(destClass.getName()));
+			}
+			final var snapshotSourceKey = readString(in);
+			if (sourceKey != null && !snapshotSourceKey.equals(sourceKey)) {
+				throw new BinderException("failed to read a snapshot of %s: the snapshot was written from a different document \"%s\"".formatted(destClass.getName(), snapshotSourceKey));
+			}
+			return destClass.cast(new Reader(in, counted, size).readValue(destClass));
+		} catch (EOFException e) {
+			throw new BinderException("failed to read a snapshot of %s: the snapshot is truncated".formatted(destClass.getName()), e);
+		} catch (IOException e) {
+			throw new BinderException("failed to read a snapshot of %s".formatted(destClass.getName()), e);
+		}
+	}
+
+	/**
+	 * @return A hash of the descriptions of all the types reachable from the <code>destClass</code>.
+	 */
+	long fingerprint(Class<?> destClass) throws BinderException {
+		final var description = new StringBuilder();
+		describe(destClass, new HashSet<>(), description);
+		try {
+			final var digest = MessageDigest.getInstance("SHA-256").digest(description.toString().getBytes(StandardCharsets.UTF_8));
+			long fingerprint = 0;
+			for (int i = 0; i < Long.BYTES; i++) {
+				fingerprint = (fingerprint << 8) | (digest[i] & 0xFF);
+			}
+			return fingerprint;
+		} catch (NoSuchAlgorithmException e) {
+			throw new BinderException("failed to compute the fingerprint of %s".formatted(destClass.getName()), e);
+		}
+	}
+
+	private void describe(Class<?> type, Set<Class<?>> described, StringBuilder description) throws BinderException {
+		description.append(type.getName());
+		// A type is described fully only once, so that recursive types have a finite description
+		if (type.isPrimitive() || VALUE_TYPES.contains(type) || !described.add(type)) {
+			description.append(';');
+			return;
+		}
+		description.append('{');
+		if (type.isEnum()) {
+			for (final var constant : type.getEnumConstants()) {
+				description.append(((Enum<?>) constant).name()).append(',');
+			}
+			description.append(Arrays.toString(type.getAnnotations()));
+		} else if (type.isArray()) {
+			describe(type.getComponentType(), described, description);
+		} else if (!binder.hasParser(type)) {
+			description.append(Arrays.toString(type.getAnnotations()));
+			if (BindingPlan.isPolymorphic(type)) {
+				for (final var subtype : subtypesOf(type)) {
+					describe(subtype, described, description);
+				}
+			}
+			// The members of a sealed class that isn't abstract are described as well, since it's one of its own subtypes
+			for (final var member : binder.getPlan(type).members()) {
+				description.append(member.name()).append(Arrays.toString(member.annotations())).append(':');
+				describe(member.type(), described, description);
+			}
+		}
+		description.append('}');
+	}
+
+	/**
+	 * Checks that the values of every type reachable from the <code>destClass</code> can be written to a snapshot,
+	 * so that a class that can never be written is rejected before a document is bound to it.
+	 * @throws BinderException If a reachable type can't be written to a snapshot.
+	 */
+	void checkWritable(Class<?> destClass) throws BinderException {
+		checkWritable(destClass, new HashSet<>());
+	}
+
+	private void checkWritable(Class<?> type, Set<Class<?>> checked) throws BinderException {
+		if (type.isPrimitive() || VALUE_TYPES.contains(type) || type.isEnum() || !checked.add(type)) {
+			return;
+		}
+		checkSupported(type);
+		if (type.isArray()) {
+			checkWritable(type.getComponentType(), checked);
+			return;
+		}
+		if (BindingPlan.isPolymorphic(type)) {
+			for (final var subtype : subtypesOf(type)) {
+				checkWritable(subtype, checked);
+			}
+		}
+		for (final var member : binder.getPlan(type).members()) {
+			checkWritable(member.type(), checked);
+		}
+	}
+
+	private Class<?>[] subtypesOf(Class<?> sealedType) throws BinderException {
+		var sorted = subtypes.get(sealedType);
+		if (sorted == null) {
+			sorted = binder.getPlan(sealedType).subtypes().byName().values().stream()
+					.distinct()
+					.sorted(Comparator.comparing(Class::getName))
+					.toArray(Class<?>[]::new);
+			subtypes.put(sealedType, sorted);
+		}
+		return sorted;
+	}
+
+	private Method[] accessorsOf(Class<?> recClass) {
+		var recAccessors = accessors.get(recClass);
+		if (recAccessors == null) {
+			recAccessors = Arrays.stream(recClass.getRecordComponents())
+					.map(RecordComponent::getAccessor)
+					.toArray(Method[]::new);
+			accessors.put(recClass, recAccessors);
+		}
+		return recAccessors;
+	}
+
+	private void checkSupported(Class<?> type) throws BinderException {
+		// The values of the other parser types (e.g. streams and fragments) can't be recreated without their nodes
+		if (type == XMLFragment.class || binder.hasParser(type)) {
+			throw new BinderException("the values of %s cannot be written to a snapshot".formatted(type.getName()));
+		}
+		if (!type.isArray() && !type.isRecord() && !BindingPlan.isPolymorphic(type) && binder.getClassParseConstructor(type) != null) {
+			throw new BinderException("the values of %s cannot be written to a snapshot: the class is bound by its class parse constructor".formatted(type.getName()));
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		final var bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException, BinderException {
+		return new String(readBytes(in), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the bytes in growing chunks, so that a corrupted length runs into the end of the snapshot
+	 * instead of allocating the whole length up front.
+	 */
+	private static byte[] readBytes(DataInputStream in) throws IOException, BinderException {
+		final var length = readLength(in);
+		var bytes = new byte[Math.min(length, BUFFER_SIZE)];
+		in.readFully(bytes);
+		while (bytes.length < length) {
+			final var read = bytes.length;
+			bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * read));
+			in.readFully(bytes, read, bytes.length - read);
+		}
+		return bytes;
+	}
+
+	private static int readLength(DataInputStream in) throws IOException, BinderException {
+		final var length = in.readInt();
+		if (length < 0) {
+			throw new BinderException("failed to read a snapshot: the snapshot is corrupted");
+		}
+		return length;
+	}
+
+	private static BinderException corrupted(Class<?> type) {
+		return new BinderException("failed to read a snapshot: the snapshot is corrupted at a value of %s".formatted(type.getName()));
+	}
+
+	private final class Writer {
+		private final DataOutputStream out;
+		/**
+		 * The indices of the arrays, the records, and the class instances in the order they were written.
+		 */
+		private final IdentityHashMap<Object, Integer> written = new IdentityHashMap<>();
+		/**
+		 * The records whose components are being written.
+		 */
+		private final Set<Object> writing = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		private Writer(DataOutputStream out) {
+			this.out = out;
+		}
+
+		private void writeValue(Object value, Class<?> type) throws IOException, BinderException {
+			if (type.isPrimitive()) {
+				writeBoxed(value, type);
+				return;
+			}
+			if (value == null) {
+				out.writeByte(TAG_NULL);
+				return;
+			}
+			if (VALUE_TYPES.contains(type)) {
+				out.writeByte(TAG_VALUE);
+				if (type == CharSequence.class) {
+					writeString(out, value.toString());
+				} else {
+					writeBoxed(value, type);
+				}
+				return;
+			}
+			if (type.isEnum()) {
+				out.writeByte(TAG_VALUE);
+				out.writeInt(((Enum<?>) value).ordinal());
+				return;
+			}
+			final var index = written.get(value);
+			if (index != null) {
+				out.writeByte(TAG_REFERENCE);
+				out.writeInt(index);
+				return;
+			}
+			checkSupported(type);
+			out.writeByte(TAG_VALUE);
+			var valueType = type;
+			if (BindingPlan.isPolymorphic(type)) {
+				final var subtypeIndex = Arrays.asList(subtypesOf(type)).indexOf(value.getClass());
+				if (subtypeIndex < 0) {
+					throw new BinderException("failed to write a snapshot: %s isn't a permitted subtype of %s".formatted(value.getClass().getName(), type.getName()));
+				}
+				out.writeInt(subtypeIndex);
+				valueType = value.getClass();
+				checkSupported(valueType);
+			} else if (value.getClass() != type) {
+				throw new BinderException("failed to write a snapshot: the value of %s has a different type %s".formatted(type.getName(), value.getClass().getName()));
+			}
+			if (valueType.isArray()) {
+				writeArray(value, valueType.getComponentType());
+			} else if (valueType.isRecord()) {
+				writeRecord(value, valueType);
+			} else {
+				writeClass(value, valueType);
+			}
+		}
+
+		private void writeArray(Object arr, Class<?> compType) throws IOException, BinderException {
+			written.put(arr, written.size());
+			final var length = Array.getLength(arr);
+			out.writeInt(length);
+			switch (arr) {
+				case int[] a -> { for (final var v : a) out.writeInt(v); }
+				case long[] a -> { for (final var v : a) out.writeLong(v); }
+				case double[] a -> { for (final var v : a) out.writeDouble(v); }
+				case float[] a -> { for (final var v : a) out.writeFloat(v); }
+				case short[] a -> { for (final var v : a) out.writeShort(v); }
+				case char[] a -> { for (final var v : a) out.writeChar(v); }
+				case boolean[] a -> { for (final var v : a) out.writeBoolean(v); }
+				case byte[] a -> out.write(a);
+				case Object[] a -> { for (final var v : a) writeValue(v, compType); }
+				default -> throw new IllegalStateException();
+			}
+		}
+
+		private void writeRecord(Object rec, Class<?> recClass) throws IOException, BinderException {
+			// A record reachable from its own components can't be created before them while reading
+			if (!writing.add(rec)) {
+				throw new BinderException("failed to write a snapshot: the records on a reference cycle can't be snapshotted, but the record %s is on one".formatted(recClass.getName()));
+			}
+			final var members = binder.getPlan(recClass).members();
+			final var recAccessors = accessorsOf(recClass);
+			for (int i = 0; i < members.length; i++) {
+				final Object component;
+				try {
+					component = recAccessors[i].invoke(rec);
+				} catch (ReflectiveOperationException e) {
+					throw new BinderException("failed to read the component \"%s\" of the record %s".formatted(members[i].name(), recClass.getName()), e);
+				}
+				writeValue(component, members[i].type());
+			}
+			// A record is registered after its components, as that's when it can be created while reading
+			writing.remove(rec);
+			written.put(rec, written.size());
+		}
+
+		private void writeClass(Object instance, Class<?> destClass) throws IOException, BinderException {
+			written.put(instance, written.size());
+			for (final var member : binder.getPlan(destClass).members()) {
+				final Object fieldValue;
+				try {
+					fieldValue = member.field().get(instance);
+				} catch (IllegalAccessException e) {
+					throw new BinderException("failed to read the value of a field \"%s\" of a class %s".formatted(member.name(), destClass.getName()), e);
+				}
+				writeValue(fieldValue, member.type());
+			}
+		}
+
+		private void writeBoxed(Object value, Class<?> type) throws IOException {
+			switch (value) {
+				case Integer v -> out.writeInt(v);
+				case Long v -> out.writeLong(v);
+				case Double v -> out.writeDouble(v);
+				case Float v -> out.writeFloat(v);
+				case Short v -> out.writeShort(v);
+				case Byte v -> out.writeByte(v);
+				case Character v -> out.writeChar(v);
+				case Boolean v -> out.writeBoolean(v);
+				case String v -> writeString(out, v);
+				case byte[] v -> {
+					out.writeInt(v.length);
+					out.write(v);
+				}
+				case URL v -> writeString(out, v.toString());
+				case UUID v -> {
+					out.writeLong(v.getMostSignificantBits());
+					out.writeLong(v.getLeastSignificantBits());
+				}
+				case BigDecimal v -> {
+					out.writeInt(v.scale());
+					writeBigInteger(v.unscaledValue());
+				}
+				case BigInteger v -> writeBigInteger(v);
+				case Instant v -> {
+					out.writeLong(v.getEpochSecond());
+					out.writeInt(v.getNano());
+				}
+				case LocalDate v -> out.writeLong(v.toEpochDay());
+				case LocalDateTime v -> writeLocalDateTime(v);
+				case OffsetDateTime v -> {
+					writeLocalDateTime(v.toLocalDateTime());
+					out.writeInt(v.getOffset().getTotalSeconds());
+				}
+				case ZonedDateTime v -> {
+					writeLocalDateTime(v.toLocalDateTime());
+					out.writeInt(v.getOffset().getTotalSeconds());
+					writeString(out, v.getZone().getId());
+				}
+				case Duration v -> {
+					out.writeLong(v.getSeconds());
+					out.writeInt(v.getNano());
+				}
+				default -> throw new IllegalStateException("unexpected value of %s".formatted(type.getName()));
+			}
+		}
+
+		private void writeBigInteger(BigInteger v) throws IOException {
+			final var bytes = v.toByteArray();
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+
+		private void writeLocalDateTime(LocalDateTime v) throws IOException {
+			out.writeLong(v.toLocalDate().toEpochDay());
+			out.writeLong(v.toLocalTime().toNanoOfDay());
+		}
+	}
+
+	private final class Reader {
+		private final DataInputStream in;
+		private final CountingInputStream counted;
+		private final long size;
+		/**
+		 * The arrays, the records, and the class instances in the order they were written.
+		 */
+		private final List<Object> read = new ArrayList<>();
+
+		private Reader(DataInputStream in, CountingInputStream counted, long size) {
+			this.in = in;
+			this.counted = counted;
+			this.size = size;
+		}
+
+		private Object readValue(Class<?> type) throws IOException, BinderException {
+			if (type.isPrimitive()) {
+				return readBoxed(type);
+			}
+			final var tag = in.readByte();
+			if (tag == TAG_NULL) {
+				return null;
+			}
+			if (tag == TAG_REFERENCE) {
+				final var index = in.readInt();
+				if (index < 0 || index >= read.size() || !type.isInstance(read.get(index))) {
+					throw corrupted(type);
+				}
+				return read.get(index);
+			}
+			if (tag != TAG_VALUE) {
+				throw corrupted(type);
+			}
+			if (VALUE_TYPES.contains(type)) {
+				return readBoxed(type);
+			}
+			if (type.isEnum()) {
+				final var constants = type.getEnumConstants();
+				final var ordinal = in.readInt();
+				if (ordinal < 0 || ordinal >= constants.length) {
+					throw corrupted(type);
+				}
+				return constants[ordinal];
+			}
+			checkSupported(type);
+			var valueType = type;
+			if (BindingPlan.isPolymorphic(type)) {
+				final var typeSubtypes = subtypesOf(type);
+				final var subtypeIndex = in.readInt();
+				if (subtypeIndex < 0 || subtypeIndex >= typeSubtypes.length) {
+					throw corrupted(type);
+				}
+				valueType = typeSubtypes[subtypeIndex];
+				checkSupported(valueType);
+			}
+			if (valueType.isArray()) {
+				return readArray(valueType.getComponentType());
+			}
+			if (valueType.isRecord()) {
+				return readRecord(valueType);
+			}
+			return readClass(valueType);
+		}
+
+		private Object readArray(Class<?> compType) throws IOException, BinderException {
+			final var length = readLength(in);
+			// Every element takes at least one byte (its tag), and a primitive element takes its whole size
+			final var elementSize = switch (compType.getName()) {
+				case "long", "double" -> 8;
+				case "int", "float" -> 4;
+				case "short", "char" -> 2;
+				default -> 1;
+			};
+			if (size >= 0 && (long) length * elementSize > size - counted.count) {
+				throw new BinderException("failed to read a snapshot: the snapshot is corrupted at an array of %s".formatted(compType.getName()));
+			}
+			final var arr = Array.newInstance(compType, length);
+			read.add(arr);
+			switch (arr) {
+				case int[] a -> { for (int i = 0; i < length; i++) a[i] = in.readInt(); }
+				case long[] a -> { for (int i = 0; i < length; i++) a[i] = in.readLong(); }
+				case double[] a -> { for (int i = 0; i < length; i++) a[i] = in.readDouble(); }
+				case float[] a -> { for (int i = 0; i < length; i++) a[i] = in.readFloat(); }
+				case short[] a -> { for (int i = 0; i < length; i++) a[i] = in.readShort(); }
+				case char[] a -> { for (int i = 0; i < length; i++) a[i] = in.readChar(); }
+				case boolean[] a -> { for (int i = 0; i < length; i++) a[i] = in.readBoolean(); }
+				case byte[] a -> in.readFully(a);
+				case Object[] a -> { for (int i = 0; i < length; i++) a[i] = readValue(compType); }
+				default -> throw new IllegalStateException();
+			}
+			return arr;
+		}
+
+		private Object readRecord(Class<?> recClass) throws IOException, BinderException {
+			final var plan = binder.getPlan(recClass);
+			final var members = plan.members();
+			final var recValues = new Object[members.length];
+			for (int i = 0; i < members.length; i++) {
+				recValues[i] = readValue(members[i].type());
+			}
+			Object instance;
+			try {
+				instance = plan.recordConstructor().newInstance(recValues);
+			} catch (Exception e) {
+				throw new BinderException("failed to create an instance of the record class %s".formatted(recClass.getName()), e);
+			}
+			if (plan.deduplicate() != null) {
+				instance = binder.deduplicate(instance, plan.deduplicate());
+			}
+			read.add(instance);
+			return instance;
+		}
+
+		private Object readClass(Class<?> destClass) throws IOException, BinderException {
+			final var instance = binder.newClassInstance(destClass);
+			read.add(instance);
+			for (final var member : binder.getPlan(destClass).members()) {
+				final var fieldValue = readValue(member.type());
+				try {
+					member.field().set(instance, fieldValue);
+				} catch (IllegalAccessException e) {
+					throw new BinderException("failed to assign the value \"%s\" to a field \"%s\" of a class %s".formatted(fieldValue, member.name(), destClass.getName()), e);
+				}
+			}
+			return instance;
+		}
+
+		private Object readBoxed(Class<?> type) throws IOException, BinderException {
+			if (type == int.class || type == Integer.class) {
+				return in.readInt();
+			}
+			if (type == long.class || type == Long.class) {
+				return in.readLong();
+			}
+			if (type == double.class || type == Double.class) {
+				return in.readDouble();
+			}
+			if (type == float.class || type == Float.class) {
+				return in.readFloat();
+			}
+			if (type == short.class || type == Short.class) {
+				return in.readShort();
+			}
+			if (type == byte.class || type == Byte.class) {
+				return in.readByte();
+			}
+			if (type == char.class || type == Character.class) {
+				return in.readChar();
+			}
+			if (type == boolean.class || type == Boolean.class) {
+				return in.readBoolean();
+			}
+			if (type == String.class || type == CharSequence.class) {
+				return readString(in);
+			}
+			if (type == byte[].class) {
+				return readBytes(in);
+			}
+			try {
+				if (type == URL.class) {
+					return new URI(readString(in)).toURL();
+				}
+				if (type == UUID.class) {
+					return new UUID(in.readLong(), in.readLong());
+				}
+				if (type == BigDecimal.class) {
+					final var scale = in.readInt();
+					return new BigDecimal(new BigInteger(readBytes(in)), scale);
+				}
+				if (type == BigInteger.class) {
+					return new BigInteger(readBytes(in));
+				}
+				if (type == Instant.class) {
+					return Instant.ofEpochSecond(in.readLong(), in.readInt());
+				}
+				if (type == LocalDate.class) {
+					return LocalDate.ofEpochDay(in.readLong());
+				}
+				if (type == LocalDateTime.class) {
+					return readLocalDateTime();
+				}
+				if (type == OffsetDateTime.class) {
+					return OffsetDateTime.of(readLocalDateTime(), ZoneOffset.ofTotalSeconds(in.readInt()));
+				}
+				if (type == ZonedDateTime.class) {
+					final var dateTime = readLocalDateTime();
+					final var offset = ZoneOffset.ofTotalSeconds(in.readInt());
+					return ZonedDateTime.ofLocal(dateTime, ZoneId.of(readString(in)), offset);
+				}
+				if (type == Duration.class) {
+					return Duration.ofSeconds(in.readLong(), in.readInt());
+				}
+			} catch (IOException | BinderException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new BinderException("failed to read a snapshot: the snapshot has an invalid value of %s".formatted(type.getName()), e);
+			}
+			throw new IllegalStateException("unexpected type %s".formatted(type.getName()));
+		}
+
+		private LocalDateTime readLocalDateTime() throws IOException {
+			final var date = LocalDate.ofEpochDay(in.readLong());
+			return LocalDateTime.of(date, LocalTime.ofNanoOfDay(in.readLong()));
+		}
+	}
+
+	/**
+	 * Counts the bytes read from the snapshot, so that the lengths in it can be checked against the bytes left.
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+		private long count;
+
+		private CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			final var b = super.read();
+			if (b >= 0) {
+				count++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			final var n = super.read(b, off, len);
+			if (n > 0) {
+				count += n;
+			}
+			return n;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			final var skipped = super.skip(n);
+			count += skipped;
+			return skipped;
+		}
+	}
+}
@@ -4,34 +4,88 @@ import com.ivankatalenic.java.xml.binder.annotations.*;
 import com.ivankatalenic.java.xml.binder.parsers.*;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
 
-import javax.xml.xpath.XPath;
+import javax.xml.XMLConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
-import javax.xml.xpath.XPathNodes;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.lang.annotation.Annotation;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
 import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Binder is used for binding an XML document (represented by a DOM tree) to a user-defined class,
  * possibly supplemented with annotations on the class' fields that guide the binding process.
  */
 public class Binder {
-	private final XPath xpath;
 	private final Map<Class<?>, Parser> parsers;
+	private final Map<Class<?>, BindingPlan> plans;
+	private final Deduplicator deduplicator;
+	private final IdIndex ids;
+	/**
+	 * The previously bound values, if the binder re-binds a document incrementally.
+	 */
+	private final BindingMemo memo;
+	/**
+	 * Whether a value that can't be memoized was bound within the value being bound,
+	 * so that the containing values aren't memoized either.
+	 */
+	private boolean boundUnmemoizable;
 
 	public Binder() {
-		xpath = XPathFactory.newInstance().newXPath();
 		parsers = new HashMap<>();
+		plans = new HashMap<>();
+		deduplicator = new Deduplicator();
+		ids = new IdIndex();
+		memo = null;
 		setUpDefaultParsers();
 	}
 
+	/**
+	 * Creates a binder with the same configuration as the <code>prototype</code> binder.
+	 * Used for binding on multiple threads, since a binder isn't thread-safe.
+	 */
+	Binder(Binder prototype) {
+		this(prototype, null);
+	}
+
+	/**
+	 * Creates a binder with the same configuration as the <code>prototype</code> binder,
+	 * which reuses the values memoized in the <code>memo</code> for the unchanged nodes.
+	 */
+	Binder(Binder prototype, BindingMemo memo) {
+		parsers = prototype.parsers;
+		plans = new HashMap<>();
+		// The copies bind parts of the prototype's bind, so they share the canonical instances
+		deduplicator = prototype.deduplicator;
+		ids = new IdIndex();
+		this.memo = memo;
+	}
+
 	static <T extends Record> Constructor<T> getRecordCanonicalConstructor(Class<T> recClass) throws BinderException {
 		Class<?>[] paramTypes =
 				Arrays.stream(recClass.getRecordComponents())
@@ -44,14 +98,6 @@ public class Binder {
 		}
 	}
 
-	private static String computeNodeName(Field field) {
-		final var xmlName = field.getAnnotation(XMLName.class);
-		if (xmlName != null) {
-			return xmlName.value();
-		}
-		return field.getName();
-	}
-
 	private static String computeNodeName(Class<?> dest, Annotation[] destAnnotations) {
 		if (destAnnotations != null) {
 			final var xmlArrElemNameAnn = Arrays
@@ -65,14 +111,6 @@ public class Binder {
 		return dest.getSimpleName().toLowerCase(Locale.ROOT);
 	}
 
-	private static String computeNodeName(RecordComponent comp) {
-		final var xmlName = comp.getAnnotation(XMLName.class);
-		if (xmlName != null) {
-			return xmlName.value();
-		}
-		return comp.getName();
-	}
-
 	private static <T> void checkDocClass(Class<T> dest) throws BinderException {
 		if (dest == null) {
 			throw new BinderException("the document object cannot be null");
@@ -104,8 +142,8 @@ public class Binder {
 		if (dest.isAnnotation()) {
 			throw new BinderException("the document class cannot be an annotation");
 		}
-		if (dest.isInterface()) {
-			throw new BinderException("the document class cannot be an interface");
+		if (dest.isInterface() && !dest.isSealed()) {
+			throw new BinderException("the document class cannot be an interface unless it's sealed");
 		}
 	}
 
@@ -142,6 +180,21 @@ public class Binder {
 
 		parsers.put(URL.class, new URLParser());
 		parsers.put(UUID.class, new UUIDParser());
+		parsers.put(BigDecimal.class, new BigDecimalParser());
+		parsers.put(BigInteger.class, new BigIntegerParser());
+
+		parsers.put(Instant.class, new InstantParser());
+		parsers.put(LocalDate.class, new LocalDateParser());
+		parsers.put(LocalDateTime.class, new LocalDateTimeParser());
+		parsers.put(OffsetDateTime.class, new OffsetDateTimeParser());
+		parsers.put(ZonedDateTime.class, new ZonedDateTimeParser());
+		parsers.put(Duration.class, new DurationParser());
+
+		// Large text content, read straight from the DOM tree without concatenating it into a single string
+		parsers.put(byte[].class, new ByteArrayParser());
+		parsers.put(InputStream.class, new InputStreamParser());
+		parsers.put(Reader.class, new ReaderParser());
+		parsers.put(CharSequence.class, new CharSequenceParser());
 	}
 
 	/**
@@ -154,28 +207,545 @@ public class Binder {
 	 */
 	public <T> T Bind(Document doc, Class<T> destClass) throws BinderException {
 		checkDocClass(destClass);
-		return parseFromNode(doc, destClass, null);
+		deduplicator.startBind();
+		return bindWithReferences(doc, destClass, null);
+	}
+
+	/**
+	 * Parse the XML document from the <code>input</code> stream and bind it to a user-defined destination class (<code>destClass</code>).
+	 * The document is parsed with a pooled, pre-configured DOM parser that doesn't resolve external entities.
+	 * @param input The XML document as a byte stream. The stream isn't closed.
+	 * @param destClass The user-defined class with possibly annotated fields that will contain the data from the document.
+	 * @return An instance of the <code>destClass</code>.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If parsing the document fails, or if binding fails.
+	 */
+	public <T> T Bind(InputStream input, Class<T> destClass) throws BinderException {
+		return Bind(parseDocument(new InputSource(input)), destClass);
+	}
+
+	/**
+	 * Parse the XML document from the <code>input</code> reader and bind it to a user-defined destination class (<code>destClass</code>).
+	 * The document is parsed with a pooled, pre-configured DOM parser that doesn't resolve external entities.
+	 * @param input The XML document as a character stream. The reader isn't closed.
+	 * @param destClass The user-defined class with possibly annotated fields that will contain the data from the document.
+	 * @return An instance of the <code>destClass</code>.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If parsing the document fails, or if binding fails.
+	 */
+	public <T> T Bind(Reader input, Class<T> destClass) throws BinderException {
+		return Bind(parseDocument(new InputSource(input)), destClass);
+	}
+
+	/**
+	 * Parse the XML document from the <code>input</code> bytes and bind it to a user-defined destination class (<code>destClass</code>).
+	 * The document is parsed with a pooled, pre-configured DOM parser that doesn't resolve external entities.
+	 * @param input The XML document as bytes.
+	 * @param destClass The user-defined class with possibly annotated fields that will contain the data from the document.
+	 * @return An instance of the <code>destClass</code>.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If parsing the document fails, or if binding fails.
+	 */
+	public <T> T Bind(byte[] input, Class<T> destClass) throws BinderException {
+		return Bind(input == null ? null : new ByteArrayInputStream(input), destClass);
+	}
+
+	/**
+	 * Parse the XML document from the <code>input</code> stream and bind it into an already existing instance (<code>dest</code>).
+	 * See {@link #BindInto(Document, Object)} for the details of how the instance is reused.
+	 * @param input The XML document as a byte stream. The stream isn't closed.
+	 * @param dest The instance of a user-defined class whose fields will be overwritten with the data from the document.
+	 * @return The <code>dest</code> instance.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If parsing the document fails, or if binding fails.
+	 */
+	public <T> T BindInto(InputStream input, T dest) throws BinderException {
+		return BindInto(parseDocument(new InputSource(input)), dest);
+	}
+
+	/**
+	 * Bind the records of a GZIP-compressed XML document to a user-defined record class (<code>recordClass</code>).
+	 * The records are the children of the document's root element whose name is computed from the <code>recordClass</code>
+	 * the same way as for array elements: the simple name of the class in lowercase.
+	 * See {@link #BindGzipRecords(InputStream, String, Class, Consumer)} for the details.
+	 * @param gzipInput The GZIP-compressed XML document. The stream is closed before the method returns, even if the binding fails.
+	 * @param recordClass The user-defined class with possibly annotated fields that will contain the data from a single record.
+	 * @param consumer The consumer that receives each bound record, in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If decompressing, parsing, or binding fails.
+	 */
+	public <T> void BindGzipRecords(InputStream gzipInput, Class<T> recordClass, Consumer<? super T> consumer) throws BinderException {
+		checkDestClass(recordClass);
+		BindGzipRecords(gzipInput, computeNodeName(recordClass, null), recordClass, consumer);
+	}
+
+	/**
+	 * Bind the records named <code>recordName</code> of a GZIP-compressed XML document to a user-defined class (<code>recordClass</code>).
+	 * The records are the children of the document's root element; other children of the root element are skipped.
+	 * <p>
+	 * Decompression, XML tokenization, and binding run as separate pipelined stages on different threads
+	 * connected by bounded buffers, so a large document is bound at close to the speed of the slowest stage.
+	 * Binding and the <code>consumer</code> run on the calling thread.
+	 * @param gzipInput The GZIP-compressed XML document. The stream is closed before the method returns, even if the binding fails.
+	 * @param recordName The name of the record elements.
+	 * @param recordClass The user-defined class with possibly annotated fields that will contain the data from a single record.
+	 * @param consumer The consumer that receives each bound record, in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If decompressing, parsing, or binding fails.
+	 */
+	public <T> void BindGzipRecords(InputStream gzipInput, String recordName, Class<T> recordClass, Consumer<? super T> consumer) throws BinderException {
+		if (gzipInput == null) {
+			throw new BinderException("the compressed XML document input cannot be null");
+		}
+		checkDestClass(recordClass);
+		deduplicator.startBind();
+		new GzipRecordPipeline(gzipInput, recordName).run(recordElem -> consumer.accept(bindNode(recordElem, recordClass)));
+	}
+
+	/**
+	 * Bind the records of a single large XML file to a user-defined class (<code>recordClass</code>) using multiple threads.
+	 * The records are the children of the document's root element whose name is computed from the <code>recordClass</code>
+	 * the same way as for array elements: the simple name of the class in lowercase.
+	 * See {@link #BindParallel(byte[], String, Class, int)} for the details.
+	 * @param xmlFile The XML document file in an ASCII-compatible encoding (e.g. UTF-8). The file is memory-mapped, so it may be larger than 2 GiB.
+	 * @param recordClass The user-defined class with possibly annotated fields that will contain the data from a single record.
+	 * @param parallelism The number of threads to use.
+	 * @return The bound records in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If reading, parsing, or binding fails.
+	 */
+	public <T> T[] BindParallel(Path xmlFile, Class<T> recordClass, int parallelism) throws BinderException {
+		checkDestClass(recordClass);
+		return BindParallel(xmlFile, computeNodeName(recordClass, null), recordClass, parallelism);
+	}
+
+	/**
+	 * Bind the records named <code>recordName</code> of a single large XML file to a user-defined class (<code>recordClass</code>) using multiple threads.
+	 * See {@link #BindParallel(byte[], String, Class, int)} for the details.
+	 * @param xmlFile The XML document file in an ASCII-compatible encoding (e.g. UTF-8). The file is memory-mapped, so it may be larger than 2 GiB.
+	 * @param recordName The name of the record elements.
+	 * @param recordClass The user-defined class with possibly annotated fields that will contain the data from a single record.
+	 * @param parallelism The number of threads to use.
+	 * @return The bound records in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If reading, parsing, or binding fails.
+	 */
+	public <T> T[] BindParallel(Path xmlFile, String recordName, Class<T> recordClass, int parallelism) throws BinderException {
+		checkParallelism(parallelism);
+		checkDestClass(recordClass);
+		try (final var arena = Arena.ofShared(); final var channel = FileChannel.open(xmlFile, StandardOpenOption.READ)) {
+			final var doc = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+			deduplicator.startBind();
+			return new ParallelRecordBinder<>(this, doc, recordName, recordClass, parallelism).bind();
+		} catch (IOException e) {
+			throw new BinderException("failed to read the XML document file \"%s\"".formatted(xmlFile), e);
+		}
+	}
+
+	/**
+	 * Bind the records of a single large XML document to a user-defined class (<code>recordClass</code>) using multiple threads.
+	 * The records are the children of the document's root element whose name is computed from the <code>recordClass</code>
+	 * the same way as for array elements: the simple name of the class in lowercase.
+	 * See {@link #BindParallel(byte[], String, Class, int)} for the details.
+	 * @param xml The XML document in an ASCII-compatible encoding (e.g. UTF-8).
+	 * @param recordClass The user-defined class with possibly annotated fields that will contain the data from a single record.
+	 * @param parallelism The number of threads to use.
+	 * @return The bound records in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If parsing or binding fails.
+	 */
+	public <T> T[] BindParallel(byte[] xml, Class<T> recordClass, int parallelism) throws BinderException {
+		checkDestClass(recordClass);
+		return BindParallel(xml, computeNodeName(recordClass, null), recordClass, parallelism);
+	}
+
+	/**
+	 * Bind the records named <code>recordName</code> of a single large XML document to a user-defined class (<code>recordClass</code>) using multiple threads.
+	 * The records are the children of the document's root element; other children of the root element are skipped.
+	 * <p>
+	 * The document is first scanned for the boundaries of the records, without being parsed.
+	 * Then it's split into chunks of consecutive records that are parsed and bound on multiple threads.
+	 * Each chunk is parsed together with the document's prolog and the root element's start tag,
+	 * so the entity and namespace declarations are preserved.
+	 * The document must be in an ASCII-compatible encoding, such as UTF-8.
+	 * @param xml The XML document in an ASCII-compatible encoding (e.g. UTF-8).
+	 * @param recordName The name of the record elements.
+	 * @param recordClass The user-defined class with possibly annotated fields that will contain the data from a single record.
+	 * @param parallelism The number of threads to use.
+	 * @return The bound records in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If parsing or binding fails.
+	 */
+	public <T> T[] BindParallel(byte[] xml, String recordName, Class<T> recordClass, int parallelism) throws BinderException {
+		if (xml == null) {
+			throw new BinderException("the XML document input cannot be null");
+		}
+		checkParallelism(parallelism);
+		checkDestClass(recordClass);
+		deduplicator.startBind();
+		return new ParallelRecordBinder<>(this, MemorySegment.ofArray(xml), recordName, recordClass, parallelism).bind();
+	}
+
+	private static void checkParallelism(int parallelism) throws BinderException {
+		if (parallelism < 1) {
+			throw new BinderException("the parallelism must be at least 1, but it's %d".formatted(parallelism));
+		}
+	}
+
+	/**
+	 * Bind the records of the XML document (<code>doc</code>) column by column into a table,
+	 * without creating an instance of the <code>recordClass</code> for each record.
+	 * The records are the children of the document's root element whose name is computed from the <code>recordClass</code>
+	 * the same way as for array elements: the simple name of the class in lowercase.
+	 * The primitive columns are stored on the heap.
+	 * See {@link #BindColumns(Document, String, Class, Arena)} for the details.
+	 * @param doc The XML document.
+	 * @param recordClass The record class whose components define the columns.
+	 * @return The table with a row for each record, in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If binding fails.
+	 */
+	public <T extends Record> RecordTable<T> BindColumns(Document doc, Class<T> recordClass) throws BinderException {
+		checkDestClass(recordClass);
+		return BindColumns(doc, computeNodeName(recordClass, null), recordClass, null);
+	}
+
+	/**
+	 * Bind the records named <code>recordName</code> of the XML document (<code>doc</code>) column by column into a table,
+	 * without creating an instance of the <code>recordClass</code> for each record.
+	 * The records are the children of the document's root element; other children of the root element are skipped.
+	 * Each record component is bound the same way as when binding a record, and stored in its own column.
+	 * The id references in the nested values are resolved within each record, as when binding the records one by one.
+	 * Primitive components are stored in primitive columns, and all the other components in object columns on the heap.
+	 * @param doc The XML document.
+	 * @param recordName The name of the record elements.
+	 * @param recordClass The record class whose components define the columns.
+	 * @param arena The arena in which the primitive columns are allocated off-heap, or <code>null</code> to store them on the heap.
+	 *              The columns can't be accessed after the arena is closed.
+	 * @return The table with a row for each record, in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If binding fails.
+	 */
+	public <T extends Record> RecordTable<T> BindColumns(Document doc, String recordName, Class<T> recordClass, Arena arena) throws BinderException {
+		if (doc == null || doc.getDocumentElement() == null) {
+			throw new BinderException("the XML document cannot be null or empty");
+		}
+		checkDestClass(recordClass);
+		deduplicator.startBind();
+		final var root = doc.getDocumentElement();
+		int recordCount = 0;
+		for (var child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (isRecordElement(child, recordName)) {
+				recordCount++;
+			}
+		}
+		final var columnBinder = new ColumnarRecordBinder<>(this, recordClass, arena, recordCount);
+		for (var child = root.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (isRecordElement(child, recordName)) {
+				columnBinder.bindRow(child);
+			}
+		}
+		return columnBinder.table();
+	}
+
+	/**
+	 * Bind the records named <code>recordName</code> of a GZIP-compressed XML document column by column into a table,
+	 * without creating an instance of the <code>recordClass</code> for each record.
+	 * The document is decompressed and tokenized the same way as by {@link #BindGzipRecords(InputStream, String, Class, Consumer)},
+	 * and the records are bound the same way as by {@link #BindColumns(Document, String, Class, Arena)}.
+	 * @param gzipInput The GZIP-compressed XML document. The stream is closed before the method returns, even if the binding fails.
+	 * @param recordName The name of the record elements.
+	 * @param recordClass The record class whose components define the columns.
+	 * @param arena The arena in which the primitive columns are allocated off-heap, or <code>null</code> to store them on the heap.
+	 *              Since the number of records isn't known in advance, the columns grow by reallocation,
+	 *              and the outgrown off-heap columns are only freed when the arena is closed.
+	 * @return The table with a row for each record, in the document order.
+	 * @param <T> The type of the record class.
+	 * @throws BinderException If decompressing, parsing, or binding fails.
+	 */
+	public <T extends Record> RecordTable<T> BindGzipColumns(InputStream gzipInput, String recordName, Class<T> recordClass, Arena arena) throws BinderException {
+		if (gzipInput == null) {
+			throw new BinderException("the compressed XML document input cannot be null");
+		}
+		checkDestClass(recordClass);
+		deduplicator.startBind();
+		final var columnBinder = new ColumnarRecordBinder<>(this, recordClass, arena, 0);
+		new GzipRecordPipeline(gzipInput, recordName).run(columnBinder::bindRow);
+		return columnBinder.table();
+	}
+
+	/**
+	 * Write a bound instance (<code>bound</code>) and everything reachable from it into a compact binary snapshot,
+	 * that can be read back with {@link #ReadSnapshot(InputStream, Class)} much faster than the document can be parsed and bound again.
+	 * The snapshot is keyed by a fingerprint of the instance's class and of all the classes reachable from it,
+	 * so it can only be read back for the same version of the classes.
+	 * The instances reachable more than once (e.g. through <code>@XMLIdRef</code> references) are written only once and stay shared.
+	 * @param bound The instance of a user-defined class returned by one of the binding methods.
+	 * @param output The output for the snapshot. The stream is flushed, but it isn't closed.
+	 * @throws BinderException If the instance holds values that can't be written, such as <code>XMLFragment</code>, <code>InputStream</code>,
+	 *                         or values of the types with a registered custom parser, or if writing fails.
+	 */
+	public void WriteSnapshot(Object bound, OutputStream output) throws BinderException {
+		if (bound == null) {
+			throw new BinderException("the bound instance cannot be null");
+		}
+		checkDocClass(bound.getClass());
+		new BinarySnapshot(this).write(bound, output, "");
+	}
+
+	/**
+	 * Read an instance of a user-defined destination class (<code>destClass</code>) from a snapshot written by {@link #WriteSnapshot(Object, OutputStream)}.
+	 * The size of the stream isn't known, so the array lengths in a corrupted snapshot can't be checked before the arrays are allocated;
+	 * {@link #BindCached(Path, Path, Class)} checks them against the size of the snapshot file.
+	 * @param input The snapshot. The stream isn't closed.
+	 * @param destClass The user-defined class the snapshot was written for.
+	 * @return An instance of the <code>destClass</code>.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If the snapshot was written for a different version of the <code>destClass</code> or of the classes reachable from it,
+	 *                         if the snapshot is corrupted, or if reading fails.
+	 */
+	public <T> T ReadSnapshot(InputStream input, Class<T> destClass) throws BinderException {
+		checkDocClass(destClass);
+		deduplicator.startBind();
+		return new BinarySnapshot(this).read(input, destClass, null, -1);
 	}
 
+	/**
+	 * Bind the XML document from the <code>xmlFile</code> to a user-defined destination class (<code>destClass</code>),
+	 * reading it from the snapshot in the <code>snapshotFile</code> instead if the snapshot is up-to-date.
+	 * The snapshot is up-to-date if it was written from the same document (the same size and modification time of the <code>xmlFile</code>)
+	 * for the same version of the <code>destClass</code> and of the classes reachable from it.
+	 * Otherwise, including if the snapshot is missing or corrupted, the document is parsed and bound,
+	 * and the snapshot is replaced with a new one.
+	 * Only the classes whose every reachable member can be written to a snapshot can be bound this way,
+	 * so the classes with <code>XMLFragment</code>, <code>InputStream</code>, or <code>Reader</code> members,
+	 * or with the members of the types with a registered custom parser, are rejected before the document is read.
+	 * See {@link #WriteSnapshot(Object, OutputStream)} for what can be written to a snapshot.
+	 * @param xmlFile The XML document.
+	 * @param snapshotFile The snapshot of the bound document. It's replaced atomically, so a reader never sees a partially written snapshot.
+	 * @param destClass The user-defined class with possibly annotated fields that will contain the data from the document.
+	 * @return An instance of the <code>destClass</code>.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If the <code>destClass</code> can't be written to a snapshot,
+	 *                         if parsing the document fails, if binding fails, or if writing the new snapshot fails.
+	 */
+	public <T> T BindCached(Path xmlFile, Path snapshotFile, Class<T> destClass) throws BinderException {
+		if (xmlFile == null || snapshotFile == null) {
+			throw new BinderException("the XML document and the snapshot files cannot be null");
+		}
+		checkDocClass(destClass);
+		final String sourceKey;
+		try {
+			final var attrs = Files.readAttributes(xmlFile, BasicFileAttributes.class);
+			sourceKey = "%d@%d".formatted(attrs.size(), attrs.lastModifiedTime().toMillis());
+		} catch (IOException e) {
+			throw new BinderException("failed to read the attributes of the XML document file %s".formatted(xmlFile), e);
+		}
+		final var snapshot = new BinarySnapshot(this);
+		snapshot.checkWritable(destClass);
+		if (Files.isRegularFile(snapshotFile)) {
+			deduplicator.startBind();
+			try (final var channel = FileChannel.open(snapshotFile)) {
+				return snapshot.read(Channels.newInputStream(channel), destClass, sourceKey, channel.size());
+			} catch (IOException | BinderException _) {
+				// A stale or corrupted snapshot is replaced with the newly bound document
+			}
+		}
+		final T bound;
+		try (final var input = Files.newInputStream(xmlFile)) {
+			bound = Bind(input, destClass);
+		} catch (IOException e) {
+			throw new BinderException("failed to read the XML document file %s".formatted(xmlFile), e);
+		}
+		Path tempFile = null;
+		try {
+			final var dir = snapshotFile.toAbsolutePath().getParent();
+			tempFile = Files.createTempFile(dir, snapshotFile.getFileName().toString(), ".tmp");
+			try (final var output = Files.newOutputStream(tempFile)) {
+				snapshot.write(bound, output, sourceKey);
+			}
+			try {
+				Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException _) {
+				Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+			tempFile = null;
+		} catch (IOException e) {
+			throw new BinderException("failed to write the snapshot file %s".formatted(snapshotFile), e);
+		} finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException _) {
+					// The leftover temporary file doesn't affect the later binds
+				}
+			}
+		}
+		return bound;
+	}
+
+	private static boolean isRecordElement(Node node, String recordName) {
+		return node.getNodeType() == Node.ELEMENT_NODE && node.getNodeName().equals(recordName);
+	}
+
+	/**
+	 * Binds the members of a record or a class from the record's or the class' node, without creating the instance.
+	 * The references are resolved within the node.
+	 */
+	Object[] bindMembers(Node srcNode, BindingPlan.Member[] members) throws BinderException {
+		ids.clear();
+		boundUnmemoizable = false;
+		try {
+			final var values = new Object[members.length];
+			for (int i = 0; i < members.length; i++) {
+				final var member = members[i];
+				values[i] = parseFromNode(getNode(srcNode, member), member.type(), member, null);
+			}
+			ids.resolveDeferred();
+			return values;
+		} finally {
+			// The index shouldn't keep the bound instances reachable after the bind
+			ids.clear();
+		}
+	}
+
+	/**
+	 * Binds a single node, such as a record of a document bound record by record.
+	 * The references are resolved within the node.
+	 */
+	<T> T bindNode(Node srcNode, Class<T> destClass) throws BinderException {
+		return bindWithReferences(srcNode, destClass, null);
+	}
+
+	private <T> T bindWithReferences(Node srcNode, Class<T> destClass, Object reuse) throws BinderException {
+		ids.clear();
+		boundUnmemoizable = false;
+		try {
+			final var bound = parseFromNode(srcNode, destClass, null, reuse);
+			ids.resolveDeferred();
+			if (memo != null && !ids.isEmpty()) {
+				// A reused value wouldn't register its ids, nor would its references follow the re-bound instances,
+				// so the documents with references are always re-bound from scratch
+				memo.clear();
+			}
+			return bound;
+		} finally {
+			// The index shouldn't keep the bound instances reachable after the bind
+			ids.clear();
+		}
+	}
+
+	private static Document parseDocument(InputSource input) throws BinderException {
+		if (input.getByteStream() == null && input.getCharacterStream() == null) {
+			throw new BinderException("the XML document input cannot be null");
+		}
+		return DocumentBuilderPool.shared().parse(input);
+	}
+
+	/**
+	 * Bind the XML document (<code>doc</code>) into an already existing instance (<code>dest</code>) of a user-defined class.
+	 * The fields of the instance are overwritten with the data from the document.
+	 * Nested class instances and arrays whose length matches the number of elements in the document are reused
+	 * instead of being allocated again, so the same destination object can be used for binding many documents.
+	 * Records, enums, and values created by parsers are immutable, so they are always created anew.
+	 * @param doc The XML document represented by a W3C DOM tree.
+	 * @param dest The instance of a user-defined class whose fields will be overwritten with the data from the document.
+	 * @return The <code>dest</code> instance.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If binding fails due to missing nodes in the XML document or some other run-time error.
+	 */
 	@SuppressWarnings("unchecked")
-	private <T> T parseFromNode(Node srcNode, Class<T> destClass, Annotation[] destAnnotations) throws BinderException {
-		checkDestClass(destClass);
-		if (srcNode == null && Arrays.stream(destAnnotations).noneMatch(an -> an instanceof XMLOptional)) {
+	public <T> T BindInto(Document doc, T dest) throws BinderException {
+		if (dest == null) {
+			throw new BinderException("the destination instance cannot be null");
+		}
+		final var destClass = (Class<T>) dest.getClass();
+		checkDocClass(destClass);
+		if (destClass.isRecord()) {
+			throw new BinderException("cannot bind into an existing instance of the record %s: records are immutable".formatted(destClass.getName()));
+		}
+		deduplicator.startBind();
+		return bindWithReferences(doc, destClass, dest);
+	}
+
+	/**
+	 * Bind the XML document (<code>doc</code>) to a user-defined destination class (<code>destClass</code>),
+	 * and keep the bound values of all the nodes, so that the document can be re-bound after it's changed
+	 * by binding only the changed nodes and their ancestors again.
+	 * See {@link IncrementalBinding} for the details.
+	 * @param doc The XML document that will be changed and re-bound.
+	 * @param destClass The user-defined class with possibly annotated fields that will contain the data from the document.
+	 * @return The incremental binding that holds the bound instance of the <code>destClass</code>.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If binding fails due to missing nodes in the XML document or some other run-time error.
+	 */
+	public <T> IncrementalBinding<T> BindIncrementally(Document doc, Class<T> destClass) throws BinderException {
+		checkDocClass(destClass);
+		return new IncrementalBinding<>(this, doc, destClass);
+	}
+
+	boolean hasParser(Class<?> type) {
+		return parsers.containsKey(type);
+	}
+
+	<T> T deduplicate(T instance, XMLDeduplicate deduplicate) {
+		return deduplicator.canonicalize(instance, deduplicate);
+	}
+
+	BindingPlan getPlan(Class<?> destClass) throws BinderException {
+		var plan = plans.get(destClass);
+		if (plan == null) {
+			plan = BindingPlan.of(destClass);
+			plans.put(destClass, plan);
+		}
+		return plan;
+	}
+
+	/**
+	 * @param member The field or the record component that will take in the parsed value,
+	 *               or <code>null</code> if the value is the document itself or an array element.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T parseFromNode(Node srcNode, Class<T> destClass, BindingPlan.Member member, Object reuse) throws BinderException {
+		// Parsers can be registered for any type, including interfaces and arrays
+		final var parser = parsers.get(destClass);
+		if (parser == null) {
+			checkDestClass(destClass);
+		}
+		if (srcNode == null && (member == null || !member.optional())) {
 			throw new BinderException("failed to parse a non-optional field of a class %s: the source document node is null".formatted(destClass.getName()));
 		}
 		if (srcNode == null) {
 			return null;
 		}
-		if (destClass.isArray()) {
-			return parseIntoArray(srcNode, destClass, destAnnotations);
+		if (memo == null || reuse != null) {
+			return parseNonNullNode(srcNode, destClass, member, parser, reuse);
 		}
-		if (destClass.isRecord()) {
-			return (T) parseIntoRecord(srcNode, (Class<? extends Record>) destClass, destAnnotations);
+		if (!BindingMemo.isMemoizable(destClass, member)) {
+			boundUnmemoizable = true;
+			return parseNonNullNode(srcNode, destClass, member, parser, null);
 		}
-		if (destClass.isEnum()) {
-			return (T) parseIntoEnum(srcNode, (Class<? extends Enum<?>>) destClass, destAnnotations);
+		final var memoized = memo.get(srcNode, destClass, member);
+		if (memoized != BindingMemo.MISS) {
+			return (T) memoized;
+		}
+		final var outerUnmemoizable = boundUnmemoizable;
+		boundUnmemoizable = false;
+		final var parsed = parseNonNullNode(srcNode, destClass, member, parser, null);
+		if (!boundUnmemoizable) {
+			memo.put(srcNode, destClass, member, parsed);
+		}
+		boundUnmemoizable |= outerUnmemoizable;
+		return parsed;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T parseNonNullNode(Node srcNode, Class<T> destClass, BindingPlan.Member member, Parser parser, Object reuse) throws BinderException {
+		final var destAnnotations = member != null ? member.annotations() : null;
+		if (destClass == XMLFragment.class || (member != null && member.raw())) {
+			final var fragment = new XMLFragment(srcNode, this);
+			return (T) (destClass == String.class ? fragment.asString() : fragment);
 		}
-		final var parser = parsers.get(destClass);
 		if (parser != null) {
 			final var parsed = parser.parseFromNode(srcNode, destAnnotations);
 			if (parsed == null) {
@@ -183,7 +753,19 @@ public class Binder {
 			}
 			return (T) parsed;
 		}
-		return parseIntoClass(srcNode, destClass, destAnnotations);
+		if (BindingPlan.isPolymorphic(destClass)) {
+			return parseIntoSubtype(srcNode, destClass, member, reuse);
+		}
+		if (destClass.isArray()) {
+			return parseIntoArray(srcNode, destClass, member, reuse);
+		}
+		if (destClass.isRecord()) {
+			return (T) parseIntoRecord(srcNode, (Class<? extends Record>) destClass, destAnnotations);
+		}
+		if (destClass.isEnum()) {
+			return (T) parseIntoEnum(srcNode, (Class<? extends Enum<?>>) destClass, destAnnotations);
+		}
+		return parseIntoClass(srcNode, destClass, destAnnotations, reuse);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -205,7 +787,7 @@ public class Binder {
 		}
 	}
 
-	private <T> T parseIntoClass(Node srcNode, Class<T> destClass, Annotation[] destAnnotations) throws BinderException {
+	private <T> T parseIntoClass(Node srcNode, Class<T> destClass, Annotation[] destAnnotations, Object reuse) throws BinderException {
 		try {
 			final var parseCon = getClassParseConstructor(destClass);
 			if (parseCon != null) {
@@ -216,18 +798,52 @@ public class Binder {
 			throw new BinderException("failed to parse a node \"%s\" into a class %s using its class parse constructor".formatted(calculateNodeLocation(srcNode), destClass.getName()), e);
 		}
 
-		return parseClassFieldByField(srcNode, destClass, destAnnotations);
+		return parseClassFieldByField(srcNode, destClass, destAnnotations, reuse);
 	}
 
-	private <T> T parseClassFieldByField(Node srcNode, Class<T> destClass, Annotation[] destAnnotations) throws BinderException {
+	private <T> T parseIntoSubtype(Node srcNode, Class<T> destClass, BindingPlan.Member member, Object reuse) throws BinderException {
+		final var subtypes = getPlan(destClass).subtypes();
+		final String subtypeName;
+		if (subtypes.discriminator() == null) {
+			subtypeName = BindingPlan.Subtypes.elementName(srcNode);
+		} else if (srcNode instanceof Element elem && elem.hasAttribute(subtypes.discriminator())) {
+			subtypeName = elem.getAttribute(subtypes.discriminator());
+		} else {
+			throw new BinderException("failed to choose a subtype of %s for the node \"%s\": the node doesn't have the attribute \"%s\"".formatted(destClass.getName(), calculateNodeLocation(srcNode), subtypes.discriminator()));
+		}
+		final var subtype = subtypes.byName().get(subtypeName);
+		if (subtype == null) {
+			throw new BinderException("failed to choose a subtype of %s for the node \"%s\": there's no subtype named \"%s\"".formatted(destClass.getName(), calculateNodeLocation(srcNode), subtypeName));
+		}
+		// An existing value can only be reused if it has the chosen subtype
+		final var subtypeReuse = subtype.isInstance(reuse) ? reuse : null;
+		if (subtype == destClass) {
+			// A sealed class that isn't abstract is one of its own subtypes, and it's bound as a plain class
+			return parseIntoClass(srcNode, destClass, member != null ? member.annotations() : null, subtypeReuse);
+		}
+		return destClass.cast(parseFromNode(srcNode, subtype, member, subtypeReuse));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T parseClassFieldByField(Node srcNode, Class<T> destClass, Annotation[] destAnnotations, Object reuse) throws BinderException {
 		if (srcNode instanceof Attr) {
 			throw new BinderException("cannot parse a class %s field by field from an attribute \"%s\"".formatted(destClass.getName(), calculateNodeLocation(srcNode)));
 		}
-		final var instance = newClassInstance(destClass);
-		for (final var field : destClass.getFields()) {
-			final var elemName = computeNodeName(field);
-			final var elemNode = getNode(srcNode, elemName, field.getDeclaredAnnotations());
-			final var fieldValue = parseFromNode(elemNode, field.getType(), field.getDeclaredAnnotations());
+		final var instance = reuse != null ? (T) reuse : newClassInstance(destClass);
+		for (final var member : getPlan(destClass).members()) {
+			final var field = member.field();
+			final var elemNode = getNode(srcNode, member);
+			final Object fieldValue;
+			if (member.idRef() && elemNode != null && !member.type().isArray()) {
+				fieldValue = resolveReference(elemNode, member.type(), instance, field, 0);
+			} else {
+				final var oldValue = reuse != null ? getFieldValue(instance, field) : null;
+				fieldValue = parseFromNode(elemNode, member.type(), member, oldValue);
+			}
+			if (member.id() && fieldValue != null) {
+				// The instance is registered before its other fields are bound, so they can reference it
+				ids.register(String.valueOf(fieldValue), instance, calculateNodeLocation(srcNode));
+			}
 			try {
 				field.set(instance, fieldValue);
 			} catch (IllegalAccessException e) {
@@ -237,7 +853,15 @@ public class Binder {
 		return instance;
 	}
 
-	private <T> Constructor<T> getClassParseConstructor(Class<T> destClass) throws BinderException {
+	private static Object getFieldValue(Object instance, Field field) throws BinderException {
+		try {
+			return field.get(instance);
+		} catch (IllegalAccessException e) {
+			throw new BinderException("failed to read the value of a field \"%s\" of a class %s".formatted(field.getName(), instance.getClass().getName()), e);
+		}
+	}
+
+	<T> Constructor<T> getClassParseConstructor(Class<T> destClass) throws BinderException {
 		try {
 			final var con = destClass.getConstructor(String.class);
 			if (!con.isAnnotationPresent(XMLClassParseConstructor.class)) {
@@ -256,64 +880,207 @@ public class Binder {
 		if (srcNode instanceof Attr) {
 			throw new BinderException("cannot parse a record %s from an attribute \"%s\"".formatted(recClass.getName(), calculateNodeLocation(srcNode)));
 		}
-		final var recComps = recClass.getRecordComponents();
-		final var recValues = new Object[recComps.length];
-		for (int i = 0; i < recComps.length; i++) {
-			final var recComp = recComps[i];
-			final var nodeName = computeNodeName(recComp);
-			final var recNode = getNode(srcNode, nodeName, recComp.getAnnotations());
-			recValues[i] = parseFromNode(recNode, recComp.getType(), recComp.getAnnotations());
+		final var plan = getPlan(recClass);
+		final var members = plan.members();
+		final var recValues = new Object[members.length];
+		Object idValue = null;
+		for (int i = 0; i < members.length; i++) {
+			final var member = members[i];
+			final var recNode = getNode(srcNode, member);
+			if (member.idRef() && recNode != null && !member.type().isArray()) {
+				recValues[i] = resolveReference(recNode, member.type(), null, null, 0);
+			} else {
+				recValues[i] = parseFromNode(recNode, member.type(), member, null);
+			}
+			if (member.id()) {
+				idValue = recValues[i];
+			}
 		}
-		final var con = getRecordCanonicalConstructor(recClass);
+		T instance;
 		try {
-			return con.newInstance(recValues);
+			instance = recClass.cast(plan.recordConstructor().newInstance(recValues));
 		} catch (Exception e) {
 			throw new BinderException("failed to create an instance of the record class %s".formatted(recClass.getName()), e);
 		}
+		if (plan.deduplicate() != null) {
+			instance = deduplicator.canonicalize(instance, plan.deduplicate());
+		}
+		if (idValue != null) {
+			ids.register(String.valueOf(idValue), instance, calculateNodeLocation(srcNode));
+		}
+		return instance;
 	}
 
 	@SuppressWarnings("unchecked")
-	private <T> T parseIntoArray(Node srcNode, Class<T> arrClass, Annotation[] destAnnotations) throws BinderException {
+	private <T> T parseIntoArray(Node srcNode, Class<T> arrClass, BindingPlan.Member member, Object reuse) throws BinderException {
 		if (srcNode instanceof Attr) {
 			throw new BinderException("cannot parse an array %s from an attribute \"%s\"".formatted(arrClass.getName(), calculateNodeLocation(srcNode)));
 		}
 		final var compType = arrClass.getComponentType();
-		final var compNodeName = computeNodeName(compType, destAnnotations);
-		final var compNodes = getNodes(srcNode, compNodeName);
-		final var compObjects = new LinkedList<>();
-		for (final var compNode : compNodes) {
-			compObjects.addLast(parseFromNode(compNode, compType, null));
+		final var compName = member != null
+				? member.arrayElementName()
+				: new BindingPlan.QualifiedName(null, computeNodeName(compType, null));
+		final var compSubtypes = member != null ? member.elementSubtypes() : null;
+		int length = 0;
+		for (var child = srcNode.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (matchesArrayElement(child, compName, compSubtypes)) {
+				length++;
+			}
 		}
-		final var arr = Array.newInstance(compType, compObjects.size());
-		for (int i = 0; i < compObjects.size(); i++) {
-			Array.set(arr, i, compObjects.get(i));
+		// An existing array can only be reused if it can hold exactly all the elements
+		final var reuseArr = reuse != null && Array.getLength(reuse) == length;
+		final var arr = reuseArr ? reuse : Array.newInstance(compType, length);
+		int i = 0;
+		for (var child = srcNode.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (!matchesArrayElement(child, compName, compSubtypes)) {
+				continue;
+			}
+			if (member != null && member.idRef()) {
+				Array.set(arr, i, resolveReference(child, compType, arr, null, i));
+				i++;
+				continue;
+			}
+			final var oldComp = reuseArr && !compType.isPrimitive() ? Array.get(arr, i) : null;
+			Array.set(arr, i, parseFromNode(child, compType, null, oldComp));
+			i++;
 		}
 		return (T) arr;
 	}
 
-	private XPathNodes getNodes(Node contextNode, String elemName) throws BinderException {
-		try {
-			return xpath.evaluateExpression(elemName, contextNode, XPathNodes.class);
-		} catch (XPathExpressionException e) {
-			throw new BinderException("failed to find elements \"%s\" inside the node \"%s\"".formatted(elemName, calculateNodeLocation(contextNode)), e);
+	/**
+	 * Finds the instance whose id is the text of the <code>refNode</code>.
+	 * If the instance isn't bound yet, setting the reference is deferred:
+	 * it's set into the <code>field</code> of the <code>target</code> instance,
+	 * or into the element at the <code>index</code> of the <code>target</code> array if the <code>field</code> is <code>null</code>.
+	 * @param target The instance or the array that takes in the reference, or <code>null</code> if it's a record that can't be changed later.
+	 * @return The referenced instance, or <code>null</code> if it isn't bound yet.
+	 */
+	private Object resolveReference(Node refNode, Class<?> type, Object target, Field field, int index) throws BinderException {
+		final var id = Commons.extractString(refNode);
+		final var location = calculateNodeLocation(refNode);
+		final var referenced = ids.resolve(id, type, location);
+		if (referenced != null) {
+			return referenced;
 		}
+		if (target == null) {
+			throw new BinderException("the record component at the node \"%s\" references the id \"%s\" before the instance with that id is bound".formatted(location, id));
+		}
+		ids.defer(new IdIndex.FixUp(id, type, target, field, index, location));
+		return null;
 	}
 
-	private Node getNode(Node contextNode, String nodeName, Annotation[] destAnnotations) throws BinderException {
-		if (Arrays.stream(destAnnotations).anyMatch(a -> a instanceof XMLFromAttribute)) {
-			// Selects an attribute instead of an element
-			nodeName = "@" + nodeName;
+	private static boolean matchesArrayElement(Node node, BindingPlan.QualifiedName name, BindingPlan.Subtypes subtypes) throws BinderException {
+		if (subtypes != null) {
+			return subtypes.matchesElement(node);
 		}
-		Node node;
-		try {
-			node = xpath.evaluateExpression(nodeName, contextNode, Node.class);
-		} catch (XPathExpressionException e) {
-			throw new BinderException("failed to find a element/attribute \"%s\" inside the node \"%s\"".formatted(nodeName, calculateNodeLocation(contextNode)), e);
+		return matchesElement(node, name);
+	}
+
+	/**
+	 * Finds the element or the attribute from which the member is parsed.
+	 * @return The node, or <code>null</code> if the context node doesn't have it.
+	 */
+	private static Node getNode(Node contextNode, BindingPlan.Member member) throws BinderException {
+		if (member.path() != null) {
+			return getNodeByPath(contextNode, member.path());
+		}
+		if (member.elementSubtypes() != null && !member.type().isArray()) {
+			for (var child = contextNode.getFirstChild(); child != null; child = child.getNextSibling()) {
+				if (member.elementSubtypes().matchesElement(child)) {
+					return child;
+				}
+			}
+			return null;
+		}
+		final var name = member.nodeName();
+		if (member.fromAttribute()) {
+			if (!(contextNode instanceof Element elem)) {
+				return null;
+			}
+			return getAttribute(elem, name);
+		}
+		return getChildElement(contextNode, name);
+	}
+
+	private static Node getAttribute(Element elem, BindingPlan.QualifiedName name) {
+		if (name.namespace() != null) {
+			final var attr = elem.getAttributeNodeNS(name.namespace(), name.localName());
+			if (attr != null || name.localName().indexOf(':') < 0) {
+				return attr;
+			}
+			// A prefixed name is matched as written in the document
+			final var prefixed = elem.getAttributeNode(name.localName());
+			return prefixed != null && name.namespace().equals(prefixed.getNamespaceURI()) ? prefixed : null;
+		}
+		// Also matches a prefixed name as written in the document
+		final var unprefixed = elem.getAttributeNode(name.localName());
+		if (unprefixed != null) {
+			return unprefixed;
+		}
+		// Without a namespace, the attributes in any namespace match, whatever their prefix
+		final var attrs = elem.getAttributes();
+		for (int i = 0; i < attrs.getLength(); i++) {
+			final var attr = attrs.item(i);
+			if (name.localName().equals(attr.getLocalName()) && !XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attr.getNamespaceURI())) {
+				return attr;
+			}
+		}
+		return null;
+	}
+
+	private static Node getChildElement(Node contextNode, BindingPlan.QualifiedName name) throws BinderException {
+		for (var child = contextNode.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (matchesElement(child, name)) {
+				return child;
+			}
+		}
+		return null;
+	}
+
+	private static Node getNodeByPath(Node contextNode, BindingPlan.Path path) throws BinderException {
+		if (path.expression() != null) {
+			try {
+				return path.expression().evaluateExpression(contextNode, Node.class);
+			} catch (XPathExpressionException e) {
+				throw new BinderException("failed to evaluate a path inside the node \"%s\"".formatted(calculateNodeLocation(contextNode)), e);
+			}
+		}
+		var node = contextNode;
+		for (final var elemName : path.elements()) {
+			node = getChildElement(node, elemName);
+			if (node == null) {
+				return null;
+			}
+		}
+		if (path.attribute() == null) {
+			return node;
+		}
+		if (!(node instanceof Element elem)) {
+			return null;
+		}
+		return getAttribute(elem, path.attribute());
+	}
+
+	private static boolean matchesElement(Node node, BindingPlan.QualifiedName name) throws BinderException {
+		if (node.getNodeType() != Node.ELEMENT_NODE) {
+			return false;
+		}
+		final var localName = node.getLocalName();
+		if (localName == null) {
+			// The DOM tree wasn't built by a namespace-aware parser, so only the names as written in the document are known
+			if (name.namespace() != null) {
+				throw new BinderException("cannot find the element %s inside the node \"%s\": matching namespaces requires a namespace-aware DOM tree".formatted(name, calculateNodeLocation(node.getParentNode())));
+			}
+			return name.localName().equals(node.getNodeName());
+		}
+		// A prefixed name (e.g. soap:Body) is matched as written in the document
+		if (!name.localName().equals(localName) && (node.getPrefix() == null || !name.localName().equals(node.getNodeName()))) {
+			return false;
 		}
-		return node;
+		return name.namespace() == null || name.namespace().equals(node.getNamespaceURI());
 	}
 
-	private <T> T newClassInstance(Class<T> c) throws BinderException {
+	<T> T newClassInstance(Class<T> c) throws BinderException {
 		try {
 			final var con = getDefaultClassConstructor(c);
 			return con.newInstance();
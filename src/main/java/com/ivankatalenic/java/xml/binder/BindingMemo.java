@@ -0,0 +1,94 @@
+package com.ivankatalenic.java.xml.binder;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Node;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * The values bound from each node of a document, and the nodes changed since they were bound.
+ * A value is reused only if neither its node nor any of the node's descendants has changed,
+ * so a change is recorded for the changed node and all of its ancestors.
+ * The changes of an element include the changes of its attributes.
+ */
+final class BindingMemo {
+	/**
+	 * Returned when there's no reusable value, since <code>null</code> is a valid bound value.
+	 */
+	static final Object MISS = new Object();
+
+	/**
+	 * A value bound from a node. A node can be bound into multiple types, or for multiple members,
+	 * so the entries of a node form a list.
+	 */
+	private record Entry(Class<?> type, BindingPlan.Member member, Object value, Entry next) {
+	}
+
+	// The nodes removed from the document are forgotten once they're no longer reachable
+	private final WeakHashMap<Node, Entry> entries = new WeakHashMap<>();
+	private final Set<Node> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+
+	/**
+	 * @return Whether the values bound into the type for the member can be reused.
+	 * The streams and the readers can only be read once,
+	 * and the fragments hold their node, which would keep the node's entry from being forgotten.
+	 */
+	static boolean isMemoizable(Class<?> type, BindingPlan.Member member) {
+		return type != InputStream.class && type != Reader.class && type != XMLFragment.class && (member == null || !member.raw());
+	}
+
+	Object get(Node node, Class<?> type, BindingPlan.Member member) {
+		// The mutation events of an attribute target its element, so an attribute is changed if its element is
+		if (changed.contains(node) || (node instanceof Attr attr && changed.contains(attr.getOwnerElement()))) {
+			return MISS;
+		}
+		for (var entry = entries.get(node); entry != null; entry = entry.next()) {
+			if (entry.type() == type && entry.member() == member) {
+				return entry.value();
+			}
+		}
+		return MISS;
+	}
+
+	void put(Node node, Class<?> type, BindingPlan.Member member, Object value) {
+		Entry others = null;
+		for (var entry = entries.get(node); entry != null; entry = entry.next()) {
+			if (entry.type() != type || entry.member() != member) {
+				others = new Entry(entry.type(), entry.member(), entry.value(), others);
+			}
+		}
+		entries.put(node, new Entry(type, member, value, others));
+	}
+
+	void markChanged(Node node) {
+		var current = node;
+		if (node instanceof Attr attr) {
+			changed.add(attr);
+			current = attr.getOwnerElement();
+		}
+		// Once an already changed node is reached, all of its ancestors are already changed as well
+		while (current != null && changed.add(current)) {
+			current = current.getParentNode();
+		}
+	}
+
+	boolean hasChanges() {
+		return !changed.isEmpty();
+	}
+
+	/**
+	 * Forgets the changes, after all the changed nodes are bound again.
+	 */
+	void clearChanges() {
+		changed.clear();
+	}
+
+	void clear() {
+		entries.clear();
+	}
+}
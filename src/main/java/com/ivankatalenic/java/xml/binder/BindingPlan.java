@@ -0,0 +1,337 @@
+package com.ivankatalenic.java.xml.binder;
+
+import com.ivankatalenic.java.xml.binder.annotations.*;
+import org.w3c.dom.Node;
+
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Everything the binder needs to know about a record, a class bound field by field, or a sealed interface/class,
+ * computed once from the reflection data and the annotations, and reused for every bound instance.
+ */
+final class BindingPlan {
+	/**
+	 * The name of an element or an attribute.
+	 * Both parts are interned, so they're usually compared by identity,
+	 * since the DOM parser interns the names of the nodes as well.
+	 *
+	 * @param namespace The namespace URI, or <code>null</code> if a node in any namespace matches.
+	 * @param localName The local name.
+	 */
+	record QualifiedName(String namespace, String localName) {
+		QualifiedName {
+			namespace = namespace == null ? null : namespace.intern();
+			localName = localName.intern();
+		}
+
+		@Override
+		public String toString() {
+			return namespace == null ? localName : "{" + namespace + "}" + localName;
+		}
+	}
+
+	/**
+	 * A compiled {@link XMLPath} annotation.
+	 * A simple path is a list of element names, optionally followed by an attribute name,
+	 * and any other path is an XPath expression.
+	 *
+	 * @param elements   The element names of a simple path, or <code>null</code> for an XPath expression.
+	 * @param attribute  The attribute name at the end of a simple path, or <code>null</code> if the path ends with an element.
+	 * @param expression The compiled XPath expression, or <code>null</code> for a simple path.
+	 */
+	record Path(QualifiedName[] elements, QualifiedName attribute, XPathExpression expression) {
+		static Path compile(String path) throws BinderException {
+			final var steps = path.split("/", -1);
+			final var elements = new QualifiedName[steps.length];
+			int elemCount = 0;
+			QualifiedName attribute = null;
+			for (int i = 0; i < steps.length; i++) {
+				final var step = steps[i];
+				final var isLast = i == steps.length - 1;
+				if (isLast && step.startsWith("@") && isName(step, 1)) {
+					attribute = new QualifiedName(null, step.substring(1));
+				} else if (isName(step, 0)) {
+					elements[elemCount++] = new QualifiedName(null, step);
+				} else {
+					return new Path(null, null, compileXPath(path));
+				}
+			}
+			return new Path(Arrays.copyOf(elements, elemCount), attribute, null);
+		}
+
+		private static boolean isName(String step, int from) {
+			if (step.length() == from) {
+				return false;
+			}
+			for (int i = from; i < step.length(); i++) {
+				final var c = step.charAt(i);
+				final var isNameChar = Character.isLetter(c) || c == '_'
+						|| (i > from && (Character.isDigit(c) || c == '-' || c == '.'));
+				if (!isNameChar) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		private static XPathExpression compileXPath(String path) throws BinderException {
+			try {
+				return XPathFactory.newInstance().newXPath().compile(path);
+			} catch (XPathExpressionException e) {
+				throw new BinderException("failed to compile the path \"%s\"".formatted(path), e);
+			}
+		}
+	}
+
+	/**
+	 * The concrete subtypes of a sealed interface/class, including the subtypes of the permitted sealed subtypes.
+	 *
+	 * @param byName        The subtypes by their names.
+	 * @param discriminator The name of the attribute that holds a subtype's name,
+	 *                      or <code>null</code> if the subtype is chosen by the element's name.
+	 */
+	record Subtypes(Map<String, Class<?>> byName, String discriminator) {
+		static Subtypes of(Class<?> sealedClass) throws BinderException {
+			final var byName = new HashMap<String, Class<?>>();
+			collectSubtypes(sealedClass, sealedClass, byName);
+			final var discriminator = sealedClass.getAnnotation(XMLDiscriminator.class);
+			return new Subtypes(Map.copyOf(byName), discriminator != null ? discriminator.value() : null);
+		}
+
+		private static void collectSubtypes(Class<?> sealedClass, Class<?> type, Map<String, Class<?>> byName) throws BinderException {
+			if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+				final var typeName = type.getAnnotation(XMLTypeName.class);
+				final var name = typeName != null ? typeName.value() : type.getSimpleName().toLowerCase(Locale.ROOT);
+				final var other = byName.putIfAbsent(name, type);
+				if (other != null && other != type) {
+					throw new BinderException("the subtypes %s and %s of the sealed type %s have the same name \"%s\"".formatted(other.getName(), type.getName(), sealedClass.getName(), name));
+				}
+			}
+			if (type.isSealed()) {
+				for (final var permitted : type.getPermittedSubclasses()) {
+					collectSubtypes(sealedClass, permitted, byName);
+				}
+			}
+		}
+
+		/**
+		 * @return Whether the node is an element named after one of the subtypes.
+		 */
+		boolean matchesElement(Node node) {
+			return node.getNodeType() == Node.ELEMENT_NODE && byName.containsKey(elementName(node));
+		}
+
+		static String elementName(Node node) {
+			final var localName = node.getLocalName();
+			return localName != null ? localName : node.getNodeName();
+		}
+	}
+
+	/**
+	 * A field of a class, or a component of a record.
+	 *
+	 * @param name             The name of the field or the component.
+	 * @param type             The type of the field or the component.
+	 * @param annotations      The annotations of the field or the component.
+	 * @param nodeName         The name of the element or attribute from which the member is parsed.
+	 * @param arrayElementName The name of the array elements if the member is an array, otherwise <code>null</code>.
+	 * @param fromAttribute    Whether the member is parsed from an attribute.
+	 * @param optional         Whether the member may be missing in the document.
+	 * @param raw              Whether the member's element/attribute is captured as it is, instead of being bound.
+	 * @param id               Whether the member holds the id of the instance.
+	 * @param idRef            Whether the member (or each array element if the member is an array) references an instance by its id.
+	 * @param path             The path to the element or attribute if it's given instead of the name, otherwise <code>null</code>.
+	 * @param elementSubtypes  The subtypes of the member (or of the array elements if the member is an array)
+	 *                         if they're chosen by the element's name, otherwise <code>null</code>.
+	 *                         The member's element (or the array elements) is any element named after one of them.
+	 * @param field            The field, or <code>null</code> if the member is a record component.
+	 */
+	record Member(
+			String name,
+			Class<?> type,
+			Annotation[] annotations,
+			QualifiedName nodeName,
+			QualifiedName arrayElementName,
+			boolean fromAttribute,
+			boolean optional,
+			boolean raw,
+			boolean id,
+			boolean idRef,
+			Path path,
+			Subtypes elementSubtypes,
+			Field field
+	) {
+	}
+
+	private final Class<?> destClass;
+	private final Member[] members;
+	private final Constructor<?> recordConstructor;
+	private final Subtypes subtypes;
+	private final XMLDeduplicate deduplicate;
+
+	private BindingPlan(Class<?> destClass, Member[] members, Constructor<?> recordConstructor, Subtypes subtypes) throws BinderException {
+		this.destClass = destClass;
+		this.members = members;
+		this.recordConstructor = recordConstructor;
+		this.subtypes = subtypes;
+		deduplicate = destClass.getAnnotation(XMLDeduplicate.class);
+		if (deduplicate != null && !destClass.isRecord()) {
+			throw new BinderException("only records can be deduplicated, but %s isn't a record".formatted(destClass.getName()));
+		}
+		if (Arrays.stream(members).filter(Member::id).count() > 1) {
+			throw new BinderException("the class %s can't have more than one id member".formatted(destClass.getName()));
+		}
+		if (deduplicate != null && deduplicate.maxSize() < 0) {
+			throw new BinderException("the maximum number of deduplicated instances of the record %s cannot be negative".formatted(destClass.getName()));
+		}
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	static BindingPlan of(Class<?> destClass) throws BinderException {
+		final var subtypes = isPolymorphic(destClass) ? Subtypes.of(destClass) : null;
+		if (subtypes != null && (destClass.isInterface() || Modifier.isAbstract(destClass.getModifiers()))) {
+			return new BindingPlan(destClass, new Member[0], null, subtypes);
+		}
+		final var defaultNamespace = destClass.getAnnotation(XMLNamespace.class);
+		if (destClass.isRecord()) {
+			final var comps = destClass.getRecordComponents();
+			final var members = new Member[comps.length];
+			for (int i = 0; i < comps.length; i++) {
+				final var comp = comps[i];
+				members[i] = createMember(comp.getName(), comp.getType(), comp.getAnnotations(), defaultNamespace, null);
+			}
+			return new BindingPlan(destClass, members, Binder.getRecordCanonicalConstructor((Class) destClass), null);
+		}
+		final var fields = destClass.getFields();
+		final var members = new Member[fields.length];
+		for (int i = 0; i < fields.length; i++) {
+			final var field = fields[i];
+			members[i] = createMember(field.getName(), field.getType(), field.getDeclaredAnnotations(), defaultNamespace, field);
+		}
+		// A sealed class that isn't abstract is bound field by field when it's chosen as its own subtype
+		return new BindingPlan(destClass, members, null, subtypes);
+	}
+
+	/**
+	 * @return Whether the values of the type are bound into one of its subtypes.
+	 */
+	static boolean isPolymorphic(Class<?> type) {
+		// Enum classes with constant bodies are sealed as well
+		return type.isSealed() && !type.isEnum();
+	}
+
+	private static Member createMember(String name, Class<?> type, Annotation[] annotations, XMLNamespace defaultNamespace, Field field) throws BinderException {
+		XMLName xmlName = null;
+		XMLPath xmlPath = null;
+		XMLArrayElementName arrElemName = null;
+		boolean fromAttribute = false;
+		boolean optional = false;
+		boolean raw = type == XMLFragment.class;
+		boolean id = false;
+		boolean idRef = false;
+		for (final var annotation : annotations) {
+			switch (annotation) {
+				case XMLName a -> xmlName = a;
+				case XMLPath a -> xmlPath = a;
+				case XMLArrayElementName a -> arrElemName = a;
+				case XMLFromAttribute _ -> fromAttribute = true;
+				case XMLOptional _ -> optional = true;
+				case XMLRaw _ -> raw = true;
+				case XMLId _ -> id = true;
+				case XMLIdRef _ -> idRef = true;
+				default -> {
+				}
+			}
+		}
+
+		if (raw && type != XMLFragment.class && type != String.class) {
+			throw new BinderException("the raw member \"%s\" must have the %s or the String type".formatted(name, XMLFragment.class.getSimpleName()));
+		}
+
+		if (idRef && (id || raw)) {
+			throw new BinderException("the reference member \"%s\" can't have an id or a raw annotation".formatted(name));
+		}
+		final var refType = type.isArray() ? type.getComponentType() : type;
+		if (idRef && refType.isPrimitive()) {
+			throw new BinderException("the reference member \"%s\" can't have a primitive type".formatted(name));
+		}
+
+		Path path = null;
+		if (xmlPath != null) {
+			if (xmlName != null || fromAttribute) {
+				throw new BinderException("the member \"%s\" can't have a path together with a name or an attribute annotation".formatted(name));
+			}
+			path = Path.compile(xmlPath.value());
+			fromAttribute = path.attribute() != null;
+		}
+
+		String namespace = null;
+		if (xmlName != null && !xmlName.namespace().isEmpty()) {
+			namespace = xmlName.namespace();
+		} else if (defaultNamespace != null && !fromAttribute) {
+			namespace = defaultNamespace.value();
+		}
+		final var nodeName = new QualifiedName(namespace, xmlName != null ? xmlName.value() : name);
+
+		QualifiedName arrayElementName = null;
+		if (type.isArray()) {
+			// The array elements are in the same namespace as the array itself
+			final var localName = arrElemName != null
+					? arrElemName.value()
+					: type.getComponentType().getSimpleName().toLowerCase(Locale.ROOT);
+			arrayElementName = new QualifiedName(namespace, localName);
+		}
+
+		Subtypes elementSubtypes = null;
+		final var valueType = type.isArray() ? type.getComponentType() : type;
+		if (isPolymorphic(valueType) && !idRef) {
+			final var subtypes = Subtypes.of(valueType);
+			if (subtypes.discriminator() == null) {
+				if (!type.isArray() && (xmlName != null || fromAttribute)) {
+					throw new BinderException("the member \"%s\" can't have a name or an attribute annotation, since its subtype is chosen by the element's name".formatted(name));
+				}
+				elementSubtypes = subtypes;
+			}
+		}
+		return new Member(name, type, annotations, nodeName, arrayElementName, fromAttribute, optional, raw, id, idRef, path, elementSubtypes, field);
+	}
+
+	Class<?> destClass() {
+		return destClass;
+	}
+
+	Member[] members() {
+		return members;
+	}
+
+	/**
+	 * @return The canonical constructor if the destination class is a record, otherwise <code>null</code>.
+	 */
+	Constructor<?> recordConstructor() {
+		return recordConstructor;
+	}
+
+	/**
+	 * @return The subtypes if the destination class is a sealed interface/class, otherwise <code>null</code>.
+	 */
+	Subtypes subtypes() {
+		return subtypes;
+	}
+
+	/**
+	 * @return The deduplication settings if the destination class is a deduplicated record, otherwise <code>null</code>.
+	 */
+	XMLDeduplicate deduplicate() {
+		return deduplicate;
+	}
+}
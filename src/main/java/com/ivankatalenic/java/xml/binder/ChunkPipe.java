@@ -0,0 +1,101 @@
+package com.ivankatalenic.java.xml.binder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded buffer of byte chunks that connects a producer thread with a consumer thread.
+ * The producer hands over whole chunks, and the consumer reads them through an {@link InputStream}.
+ * When the buffer is full the producer blocks, so a fast producer cannot run ahead of a slow consumer.
+ */
+final class ChunkPipe {
+	private static final byte[] END_OF_STREAM = new byte[0];
+
+	private final BlockingQueue<byte[]> chunks;
+	private volatile Throwable failure;
+
+	ChunkPipe(int capacity) {
+		chunks = new ArrayBlockingQueue<>(capacity);
+	}
+
+	/**
+	 * Hands over a chunk to the consumer. The pipe takes the ownership of the chunk.
+	 */
+	void write(byte[] chunk) throws InterruptedException {
+		if (chunk.length == 0) {
+			return;
+		}
+		chunks.put(chunk);
+	}
+
+	/**
+	 * Signals the consumer that there are no more chunks.
+	 */
+	void close() throws InterruptedException {
+		chunks.put(END_OF_STREAM);
+	}
+
+	/**
+	 * Signals the consumer that the producer failed. The consumer's next read throws an exception.
+	 */
+	void fail(Throwable cause) {
+		failure = cause;
+		// The remaining chunks are useless, and dropping them guarantees that there's room for the end marker
+		chunks.clear();
+		chunks.offer(END_OF_STREAM);
+	}
+
+	InputStream inputStream() {
+		return new InputStream() {
+			private byte[] chunk = new byte[0];
+			private int pos = 0;
+
+			@Override
+			public int read() throws IOException {
+				if (!fill()) {
+					return -1;
+				}
+				return chunk[pos++] & 0xFF;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				if (len == 0) {
+					return 0;
+				}
+				if (!fill()) {
+					return -1;
+				}
+				final var n = Math.min(len, chunk.length - pos);
+				System.arraycopy(chunk, pos, b, off, n);
+				pos += n;
+				return n;
+			}
+
+			private boolean fill() throws IOException {
+				while (pos == chunk.length) {
+					if (chunk == END_OF_STREAM) {
+						checkFailure();
+						return false;
+					}
+					try {
+						chunk = chunks.take();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IOException("interrupted while waiting for the next chunk", e);
+					}
+					pos = 0;
+				}
+				return true;
+			}
+
+			private void checkFailure() throws IOException {
+				if (failure != null) {
+					throw new IOException("the producer of the stream failed", failure);
+				}
+			}
+		};
+	}
+}
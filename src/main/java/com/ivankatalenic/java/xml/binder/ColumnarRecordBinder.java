@@ -0,0 +1,48 @@
+package com.ivankatalenic.java.xml.binder;
+
+import org.w3c.dom.Node;
+
+import java.lang.foreign.Arena;
+
+/**
+ * Binds record elements column by column into a {@link RecordTable}, one row at a time.
+ * The columns are named and typed after the record components, as described by the record's binding plan.
+ */
+final class ColumnarRecordBinder<T extends Record> {
+	private final Binder binder;
+	private final Class<T> recordClass;
+	private final BindingPlan plan;
+	private final RecordTable.Column[] columns;
+	private int rowCount;
+
+	/**
+	 * @param arena    The arena of the off-heap primitive columns, or <code>null</code> for the heap columns.
+	 * @param capacity The expected number of rows.
+	 */
+	ColumnarRecordBinder(Binder binder, Class<T> recordClass, Arena arena, int capacity) throws BinderException {
+		this.binder = binder;
+		this.recordClass = recordClass;
+		plan = binder.getPlan(recordClass);
+		final var members = plan.members();
+		columns = new RecordTable.Column[members.length];
+		for (int i = 0; i < members.length; i++) {
+			final var member = members[i];
+			if (member.id() || member.idRef()) {
+				throw new BinderException("the component \"%s\" of the record %s can't be bound into a column, since it's an id or a reference".formatted(member.name(), recordClass.getName()));
+			}
+			columns[i] = new RecordTable.Column(member.name(), member.type(), arena, capacity);
+		}
+	}
+
+	void bindRow(Node recordNode) throws BinderException {
+		final var values = binder.bindMembers(recordNode, plan.members());
+		for (int i = 0; i < values.length; i++) {
+			columns[i].append(values[i]);
+		}
+		rowCount++;
+	}
+
+	RecordTable<T> table() {
+		return new RecordTable<>(recordClass, plan.recordConstructor(), columns, rowCount);
+	}
+}
@@ -0,0 +1,52 @@
+package com.ivankatalenic.java.xml.binder;
+
+import com.ivankatalenic.java.xml.binder.annotations.XMLDeduplicate;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Replaces equal record instances with canonical ones, using bounded tables for each record class.
+ * The tables are concurrent, since the binders that bind on multiple threads share the deduplicator of their prototype.
+ */
+final class Deduplicator {
+	private static final class CanonicalTable {
+		private final ConcurrentHashMap<Object, Object> instances = new ConcurrentHashMap<>();
+		private final int maxSize;
+
+		private CanonicalTable(int maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		private Object canonicalize(Object instance) {
+			final var canonical = instances.get(instance);
+			if (canonical != null) {
+				return canonical;
+			}
+			// The size is only approximate while other threads are adding instances, which is fine for a bound
+			if (instances.size() >= maxSize) {
+				return instance;
+			}
+			final var raced = instances.putIfAbsent(instance, instance);
+			return raced != null ? raced : instance;
+		}
+	}
+
+	private final ConcurrentHashMap<Class<?>, CanonicalTable> binderTables = new ConcurrentHashMap<>();
+	private volatile ConcurrentHashMap<Class<?>, CanonicalTable> bindTables = new ConcurrentHashMap<>();
+
+	/**
+	 * Forgets the canonical instances of the previous bind.
+	 */
+	void startBind() {
+		if (!bindTables.isEmpty()) {
+			bindTables = new ConcurrentHashMap<>();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	<T> T canonicalize(T instance, XMLDeduplicate deduplicate) {
+		final var tables = deduplicate.scope() == XMLDeduplicate.Scope.BINDER ? binderTables : bindTables;
+		final var table = tables.computeIfAbsent(instance.getClass(), _ -> new CanonicalTable(deduplicate.maxSize()));
+		return (T) table.canonicalize(instance);
+	}
+}
@@ -0,0 +1,128 @@
+package com.ivankatalenic.java.xml.binder;
+
+import org.w3c.dom.Document;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of pre-configured DOM parsers shared by all binders.
+ * Looking up the factory and creating a new document builder is expensive, so the builders are reused.
+ * A document builder isn't thread-safe, so each builder is used by one thread at a time.
+ */
+final class DocumentBuilderPool {
+	/**
+	 * The maximum number of idle builders kept in the pool.
+	 */
+	private static final int MAX_IDLE_BUILDERS = 2 * Runtime.getRuntime().availableProcessors();
+
+	private static final DocumentBuilderPool SHARED = new DocumentBuilderPool();
+
+	private static final ErrorHandler RETHROWING_ERROR_HANDLER = new ErrorHandler() {
+		@Override
+		public void warning(SAXParseException exception) {
+		}
+
+		@Override
+		public void error(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+
+		@Override
+		public void fatalError(SAXParseException exception) throws SAXException {
+			throw exception;
+		}
+	};
+
+	private final DocumentBuilderFactory factory;
+	private final ConcurrentLinkedQueue<DocumentBuilder> idle;
+	private final AtomicInteger idleCount;
+
+	private DocumentBuilderPool() {
+		factory = createSecureFactory();
+		idle = new ConcurrentLinkedQueue<>();
+		idleCount = new AtomicInteger();
+	}
+
+	static DocumentBuilderPool shared() {
+		return SHARED;
+	}
+
+	private static DocumentBuilderFactory createSecureFactory() {
+		final var factory = DocumentBuilderFactory.newDefaultInstance();
+		try {
+			factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+			factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+			factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+			factory.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+		} catch (ParserConfigurationException e) {
+			throw new IllegalStateException("failed to configure the default document builder factory", e);
+		}
+		factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+		factory.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+		factory.setXIncludeAware(false);
+		factory.setNamespaceAware(true);
+		return factory;
+	}
+
+	/**
+	 * Parses the input into a DOM tree using a pooled document builder.
+	 */
+	Document parse(InputSource input) throws BinderException {
+		final var builder = acquire();
+		try {
+			// The default error handler prints the errors to the standard error output
+			builder.setErrorHandler(RETHROWING_ERROR_HANDLER);
+			return builder.parse(input);
+		} catch (Exception e) {
+			throw new BinderException("failed to parse the XML document", e);
+		} finally {
+			release(builder);
+		}
+	}
+
+	/**
+	 * Creates a new empty DOM tree using a pooled document builder.
+	 */
+	Document newDocument() throws BinderException {
+		final var builder = acquire();
+		try {
+			return builder.newDocument();
+		} finally {
+			release(builder);
+		}
+	}
+
+	private DocumentBuilder acquire() throws BinderException {
+		final var builder = idle.poll();
+		if (builder != null) {
+			idleCount.decrementAndGet();
+			return builder;
+		}
+		try {
+			// The factory isn't thread-safe
+			synchronized (factory) {
+				return factory.newDocumentBuilder();
+			}
+		} catch (ParserConfigurationException e) {
+			throw new BinderException("failed to create a document builder", e);
+		}
+	}
+
+	private void release(DocumentBuilder builder) {
+		builder.reset();
+		if (idleCount.incrementAndGet() > MAX_IDLE_BUILDERS) {
+			idleCount.decrementAndGet();
+			return;
+		}
+		idle.offer(builder);
+	}
+}
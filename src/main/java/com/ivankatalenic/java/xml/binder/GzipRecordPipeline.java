@@ -0,0 +1,233 @@
+package com.ivankatalenic.java.xml.binder;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Binds the records of a GZIP-compressed XML document in three pipelined stages:
+ * <ol>
+ *     <li>the inflation stage decompresses the input into chunks of bytes,</li>
+ *     <li>the tokenization stage parses the chunks and cuts out a small DOM tree for each record element,</li>
+ *     <li>the binding stage hands over each record's DOM tree to the sink, which binds it.</li>
+ * </ol>
+ * The first two stages run on their own threads, and the binding stage runs on the calling thread.
+ * The stages are connected by bounded buffers, so the throughput is close to the throughput of the slowest stage.
+ */
+final class GzipRecordPipeline {
+	/**
+	 * The binding stage.
+	 */
+	@FunctionalInterface
+	interface RecordSink {
+		void accept(Element record) throws BinderException;
+	}
+
+	private static final int CHUNK_SIZE = 64 * 1024;
+	private static final int CHUNK_BUFFER_CAPACITY = 16;
+	private static final int RECORD_BUFFER_CAPACITY = 1024;
+
+	private static final Object END_OF_RECORDS = new Object();
+
+	private record StageFailure(Throwable cause) {
+	}
+
+	private final InputStream gzipInput;
+	private final String recordName;
+
+	private final ChunkPipe inflated;
+	private final BlockingQueue<Object> records;
+
+	GzipRecordPipeline(InputStream gzipInput, String recordName) {
+		this.gzipInput = gzipInput;
+		this.recordName = recordName;
+		inflated = new ChunkPipe(CHUNK_BUFFER_CAPACITY);
+		records = new ArrayBlockingQueue<>(RECORD_BUFFER_CAPACITY);
+	}
+
+	void run(RecordSink sink) throws BinderException {
+		final var inflater = Thread.ofPlatform().daemon().name("xml-binder-inflate").start(this::inflate);
+		final var tokenizer = Thread.ofPlatform().daemon().name("xml-binder-tokenize").start(this::tokenize);
+		try {
+			while (true) {
+				final var next = records.take();
+				if (next == END_OF_RECORDS) {
+					return;
+				}
+				if (next instanceof StageFailure failure) {
+					throw new BinderException("failed to read the records \"%s\" from the compressed document".formatted(recordName), failure.cause());
+				}
+				sink.accept(((Document) next).getDocumentElement());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BinderException("interrupted while binding the records \"%s\"".formatted(recordName), e);
+		} finally {
+			// Stops the other stages if the binding stage finished early
+			inflater.interrupt();
+			tokenizer.interrupt();
+			awaitInflater(inflater);
+		}
+	}
+
+	/**
+	 * Waits until the inflation stage ends, so that the input is closed when the pipeline returns.
+	 * The input is closed first, since a blocked read can't be interrupted.
+	 */
+	private void awaitInflater(Thread inflater) {
+		if (inflater.isAlive()) {
+			try {
+				gzipInput.close();
+			} catch (IOException _) {
+				// The inflation stage ends either way
+			}
+		}
+		boolean interrupted = false;
+		while (true) {
+			try {
+				inflater.join();
+				break;
+			} catch (InterruptedException _) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void inflate() {
+		try (final var in = new GZIPInputStream(gzipInput, CHUNK_SIZE)) {
+			while (true) {
+				final var chunk = in.readNBytes(CHUNK_SIZE);
+				if (chunk.length == 0) {
+					break;
+				}
+				inflated.write(chunk);
+			}
+			inflated.close();
+		} catch (InterruptedException _) {
+			// The pipeline was stopped
+		} catch (Exception e) {
+			inflated.fail(e);
+		}
+	}
+
+	private void tokenize() {
+		try {
+			final var reader = createInputFactory().createXMLStreamReader(inflated.inputStream());
+			try {
+				int depth = 0;
+				while (reader.hasNext()) {
+					final var event = reader.next();
+					if (event == XMLStreamConstants.END_ELEMENT) {
+						depth--;
+						continue;
+					}
+					if (event != XMLStreamConstants.START_ELEMENT) {
+						continue;
+					}
+					// Records are the children of the root element
+					if (depth == 1 && qualifiedName(reader).equals(recordName)) {
+						final var doc = DocumentBuilderPool.shared().newDocument();
+						doc.appendChild(readElement(reader, doc));
+						records.put(doc);
+						continue;
+					}
+					depth++;
+				}
+			} finally {
+				reader.close();
+			}
+			records.put(END_OF_RECORDS);
+		} catch (InterruptedException _) {
+			// The pipeline was stopped
+		} catch (Exception e) {
+			records.clear();
+			records.offer(new StageFailure(e));
+		}
+	}
+
+	private static XMLInputFactory createInputFactory() {
+		final var factory = XMLInputFactory.newDefaultFactory();
+		// The records are built into namespace-aware DOM trees, the same as the ones parsed by the pooled document builders
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+		// Large text arrives in multiple events, each kept as its own text node,
+		// so that the text can be read chunk by chunk instead of being held in a single string
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+		return factory;
+	}
+
+	private static String qualifiedName(XMLStreamReader reader) {
+		return qualifiedName(reader.getPrefix(), reader.getLocalName());
+	}
+
+	private static String qualifiedName(String prefix, String localName) {
+		if (prefix == null || prefix.isEmpty()) {
+			return localName;
+		}
+		return prefix + ":" + localName;
+	}
+
+	private static String emptyToNull(String namespace) {
+		return namespace == null || namespace.isEmpty() ? null : namespace;
+	}
+
+	/**
+	 * Reads the element at which the reader is positioned, including its whole subtree.
+	 * The reader is left positioned at the element's end tag.
+	 */
+	private static Element readElement(XMLStreamReader reader, Document doc) throws XMLStreamException {
+		final var open = new ArrayDeque<Element>();
+		Element root = null;
+		while (true) {
+			switch (reader.getEventType()) {
+				case XMLStreamConstants.START_ELEMENT -> {
+					final var elem = doc.createElementNS(emptyToNull(reader.getNamespaceURI()), qualifiedName(reader));
+					for (int i = 0; i < reader.getNamespaceCount(); i++) {
+						final var prefix = reader.getNamespacePrefix(i);
+						final var declName = prefix == null || prefix.isEmpty() ? XMLConstants.XMLNS_ATTRIBUTE : XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix;
+						elem.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI, declName, reader.getNamespaceURI(i));
+					}
+					for (int i = 0; i < reader.getAttributeCount(); i++) {
+						final var attrName = qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+						elem.setAttributeNS(emptyToNull(reader.getAttributeNamespace(i)), attrName, reader.getAttributeValue(i));
+					}
+					if (open.isEmpty()) {
+						root = elem;
+					} else {
+						open.peek().appendChild(elem);
+					}
+					open.push(elem);
+				}
+				case XMLStreamConstants.CHARACTERS, XMLStreamConstants.SPACE ->
+						open.element().appendChild(doc.createTextNode(reader.getText()));
+				case XMLStreamConstants.CDATA ->
+						open.element().appendChild(doc.createCDATASection(reader.getText()));
+				case XMLStreamConstants.END_ELEMENT -> {
+					open.pop();
+					if (open.isEmpty()) {
+						return root;
+					}
+				}
+				default -> {
+					// Comments and processing instructions aren't bound
+				}
+			}
+			reader.next();
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package com.ivankatalenic.java.xml.binder;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The instances bound so far by their ids, and the references to the instances that aren't bound yet.
+ * It lets the references be resolved during the single binding pass.
+ */
+final class IdIndex {
+	/**
+	 * A reference to be set once the referenced instance is bound:
+	 * either a field of the <code>target</code> instance, or an element of the <code>target</code> array.
+	 */
+	record FixUp(String id, Class<?> type, Object target, Field field, int index, String location) {
+	}
+
+	private final Map<String, Object> instances = new HashMap<>();
+	private final List<FixUp> fixUps = new ArrayList<>();
+
+	boolean isEmpty() {
+		return instances.isEmpty();
+	}
+
+	void clear() {
+		instances.clear();
+		fixUps.clear();
+	}
+
+	void register(String id, Object instance, String location) throws BinderException {
+		final var other = instances.putIfAbsent(id, instance);
+		if (other != null && other != instance) {
+			throw new BinderException("the id \"%s\" of the node \"%s\" is already used by another instance".formatted(id, location));
+		}
+	}
+
+	/**
+	 * @return The referenced instance, or <code>null</code> if there's no instance with the id yet.
+	 */
+	Object resolve(String id, Class<?> type, String location) throws BinderException {
+		final var instance = instances.get(id);
+		if (instance != null && !type.isInstance(instance)) {
+			throw new BinderException("the node \"%s\" references the id \"%s\" of an instance of %s, but it must reference an instance of %s".formatted(location, id, instance.getClass().getName(), type.getName()));
+		}
+		return instance;
+	}
+
+	void defer(FixUp fixUp) {
+		fixUps.add(fixUp);
+	}
+
+	/**
+	 * Sets the deferred references, after all the referenced instances are bound.
+	 */
+	void resolveDeferred() throws BinderException {
+		for (final var fixUp : fixUps) {
+			final var instance = resolve(fixUp.id(), fixUp.type(), fixUp.location());
+			if (instance == null) {
+				throw new BinderException("the node \"%s\" references the id \"%s\", but there's no instance with that id".formatted(fixUp.location(), fixUp.id()));
+			}
+			if (fixUp.field() == null) {
+				Array.set(fixUp.target(), fixUp.index(), instance);
+				continue;
+			}
+			try {
+				fixUp.field().set(fixUp.target(), instance);
+			} catch (IllegalAccessException e) {
+				throw new BinderException("failed to assign the referenced instance to a field \"%s\" of a class %s".formatted(fixUp.field().getName(), fixUp.target().getClass().getName()), e);
+			}
+		}
+		fixUps.clear();
+	}
+}
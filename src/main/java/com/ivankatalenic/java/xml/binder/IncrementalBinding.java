@@ -0,0 +1,93 @@
+package com.ivankatalenic.java.xml.binder;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.events.EventListener;
+import org.w3c.dom.events.EventTarget;
+
+/**
+ * A document bound to a user-defined class, which is re-bound incrementally after the document is changed in place.
+ * On a re-bind, only the changed nodes and their ancestors are bound again,
+ * and the values bound from all the other nodes are reused from the previous result.
+ * <p>
+ * The changes are tracked with the DOM mutation events if the DOM implementation supports them (the JDK's one does),
+ * and they can also be marked explicitly with {@link #markChanged(Node)}.
+ * <p>
+ * Since a new result shares the unchanged values with the previous results, the bound values should be treated as immutable.
+ * The <code>InputStream</code>, <code>Reader</code>, and <code>XMLFragment</code> values, and the raw markup, are never reused,
+ * nor are the values that contain them, so each result gets its own streams.
+ * Documents with id references (see {@link com.ivankatalenic.java.xml.binder.annotations.XMLIdRef}) are always re-bound from scratch.
+ * A value bound with an XPath expression (see {@link com.ivankatalenic.java.xml.binder.annotations.XMLPath}) that selects nodes
+ * outside of the node's subtree isn't bound again when only those nodes change, so they must be marked explicitly.
+ * Like a binder, the incremental binding isn't thread-safe.
+ *
+ * @param <T> The type of the destination class.
+ */
+public final class IncrementalBinding<T> implements AutoCloseable {
+	private static final String SUBTREE_MODIFIED = "DOMSubtreeModified";
+
+	private final Document doc;
+	private final Class<T> destClass;
+	private final BindingMemo memo;
+	private final Binder binder;
+	private final EventListener mutationListener;
+	private T result;
+
+	IncrementalBinding(Binder prototype, Document doc, Class<T> destClass) throws BinderException {
+		if (doc == null) {
+			throw new BinderException("the XML document cannot be null");
+		}
+		this.doc = doc;
+		this.destClass = destClass;
+		memo = new BindingMemo();
+		binder = new Binder(prototype, memo);
+		result = binder.Bind(doc, destClass);
+		if (doc instanceof EventTarget target) {
+			// The event's target is the node whose subtree has changed
+			mutationListener = event -> memo.markChanged((Node) event.getTarget());
+			target.addEventListener(SUBTREE_MODIFIED, mutationListener, true);
+		} else {
+			mutationListener = null;
+		}
+	}
+
+	/**
+	 * @return The instance of the destination class bound by the latest (re-)bind.
+	 */
+	public T result() {
+		return result;
+	}
+
+	/**
+	 * Marks the node as changed, for the changes that aren't tracked with the DOM mutation events.
+	 * A node with changed children, or a changed attribute, must be marked as well.
+	 */
+	public void markChanged(Node node) {
+		memo.markChanged(node);
+	}
+
+	/**
+	 * Binds the changed nodes and their ancestors again.
+	 * If the re-bind fails, the previous result is kept, and the changes are kept for the next re-bind.
+	 * @return The new result, or the previous result if nothing has changed.
+	 * @throws BinderException If binding fails due to missing nodes in the XML document or some other run-time error.
+	 */
+	public T rebind() throws BinderException {
+		if (!memo.hasChanges()) {
+			return result;
+		}
+		result = binder.Bind(doc, destClass);
+		memo.clearChanges();
+		return result;
+	}
+
+	/**
+	 * Stops tracking the changes of the document.
+	 */
+	@Override
+	public void close() {
+		if (mutationListener != null) {
+			((EventTarget) doc).removeEventListener(SUBTREE_MODIFIED, mutationListener, true);
+		}
+	}
+}
@@ -0,0 +1,167 @@
+package com.ivankatalenic.java.xml.binder;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds the records of a single large XML document on multiple threads.
+ * The document is split at the boundaries of the record elements (the children of the root element)
+ * into chunks that are parsed and bound independently.
+ * Each chunk is parsed as a standalone document made of the original prolog (which includes the root element's start tag,
+ * so the entity and namespace declarations are preserved), the chunk's records, and the root element's end tag.
+ */
+final class ParallelRecordBinder<T> {
+	/**
+	 * The smallest chunk worth parsing on its own; smaller chunks don't pay off the cost of parsing the prolog.
+	 */
+	private static final long MIN_CHUNK_SIZE = 1024 * 1024;
+	/**
+	 * The number of chunks per thread. Having more chunks than threads balances the load between the threads.
+	 */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final Binder binder;
+	private final MemorySegment doc;
+	private final String recordName;
+	private final Class<T> recordClass;
+	private final int parallelism;
+
+	ParallelRecordBinder(Binder binder, MemorySegment doc, String recordName, Class<T> recordClass, int parallelism) {
+		this.binder = binder;
+		this.doc = doc;
+		this.recordName = recordName;
+		this.recordClass = recordClass;
+		this.parallelism = parallelism;
+	}
+
+	@SuppressWarnings("unchecked")
+	T[] bind() throws BinderException {
+		final var chunkSize = Math.max(MIN_CHUNK_SIZE, doc.byteSize() / ((long) parallelism * CHUNKS_PER_THREAD));
+		final var scanner = new RecordBoundaryScanner(doc, recordName, chunkSize);
+		scanner.scan();
+
+		final var result = (T[]) Array.newInstance(recordClass, scanner.recordCount());
+		final var prolog = doc.asSlice(0, scanner.prologEnd()).toArray(ValueLayout.JAVA_BYTE);
+		final var epilog = "</%s>".formatted(scanner.rootName()).getBytes(StandardCharsets.UTF_8);
+
+		// Binders aren't thread-safe, so each thread gets its own
+		final var threadBinders = ThreadLocal.withInitial(() -> new Binder(binder));
+		final var executor = Executors.newFixedThreadPool(parallelism, Thread.ofPlatform().daemon().name("xml-binder-parallel-", 0).factory());
+		try {
+			final var futures = new ArrayList<Future<?>>();
+			for (final var chunk : scanner.chunks()) {
+				futures.add(executor.submit(() -> {
+					bindChunk(threadBinders.get(), chunk, prolog, epilog, result);
+					return null;
+				}));
+			}
+			for (final var future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof BinderException be) {
+				throw be;
+			}
+			throw new BinderException("failed to bind the records \"%s\" in parallel".formatted(recordName), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BinderException("interrupted while binding the records \"%s\" in parallel".formatted(recordName), e);
+		} finally {
+			executor.shutdownNow();
+			awaitTermination(executor);
+		}
+		return result;
+	}
+
+	private void bindChunk(Binder chunkBinder, RecordBoundaryScanner.Chunk chunk, byte[] prolog, byte[] epilog, T[] result) throws BinderException {
+		final var chunkInput = new SequenceInputStream(Collections.enumeration(List.of(
+				new ByteArrayInputStream(prolog),
+				new SegmentInputStream(doc.asSlice(chunk.start(), chunk.end() - chunk.start())),
+				new ByteArrayInputStream(epilog)
+		)));
+		final var chunkDoc = DocumentBuilderPool.shared().parse(new InputSource(chunkInput));
+		int index = chunk.firstRecord();
+		final var end = chunk.firstRecord() + chunk.recordCount();
+		final var root = chunkDoc.getDocumentElement();
+		Node next;
+		for (var child = root.getFirstChild(); child != null; child = next) {
+			next = child.getNextSibling();
+			if (child.getNodeType() != Node.ELEMENT_NODE || !((Element) child).getTagName().equals(recordName)) {
+				continue;
+			}
+			if (index == end) {
+				throw new BinderException("failed to split the document at the records \"%s\": a chunk holds more records than expected".formatted(recordName));
+			}
+			// A detached record can be garbage collected as soon as it's bound,
+			// instead of staying reachable until the whole chunk is bound
+			root.removeChild(child);
+			result[index++] = chunkBinder.bindNode(child, recordClass);
+		}
+		if (index != end) {
+			throw new BinderException("failed to split the document at the records \"%s\": a chunk holds fewer records than expected".formatted(recordName));
+		}
+	}
+
+	private static void awaitTermination(ExecutorService executor) {
+		try {
+			// The document's memory may be released after returning, so no thread may be reading it anymore
+			while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+				executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * An input stream reading from a memory segment, which unlike a byte buffer may be larger than 2 GiB.
+	 */
+	private static final class SegmentInputStream extends InputStream {
+		private final MemorySegment segment;
+		private long pos = 0;
+
+		SegmentInputStream(MemorySegment segment) {
+			this.segment = segment;
+		}
+
+		@Override
+		public int read() {
+			if (pos == segment.byteSize()) {
+				return -1;
+			}
+			return segment.get(ValueLayout.JAVA_BYTE, pos++) & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (len == 0) {
+				return 0;
+			}
+			final var remaining = segment.byteSize() - pos;
+			if (remaining == 0) {
+				return -1;
+			}
+			final var n = (int) Math.min(len, remaining);
+			MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, pos, b, off, n);
+			pos += n;
+			return n;
+		}
+	}
+}
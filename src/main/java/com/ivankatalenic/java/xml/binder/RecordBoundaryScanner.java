@@ -0,0 +1,273 @@
+package com.ivankatalenic.java.xml.binder;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A lightweight scanner that finds the boundaries of the repeated record elements (the children of the root element)
+ * in a raw XML document, without parsing it.
+ * It only understands the markup needed for tracking the element depth:
+ * tags, quoted attribute values, comments, CDATA sections, processing instructions, and the document type declaration.
+ * The document must be in an ASCII-compatible encoding, such as UTF-8 or ISO-8859-1.
+ * <p>
+ * Consecutive records are grouped into chunks of roughly the requested size,
+ * so each chunk can be parsed independently of the others.
+ */
+final class RecordBoundaryScanner {
+	/**
+	 * A byte range of the document holding <code>recordCount</code> consecutive records.
+	 * The range starts at the first record's start tag and ends after the last record's end tag.
+	 */
+	record Chunk(long start, long end, int firstRecord, int recordCount) {
+	}
+
+	private final MemorySegment doc;
+	private final long size;
+	private final byte[] recordName;
+	private final long chunkSize;
+
+	private long prologEnd;
+	private String rootName;
+	private final List<Chunk> chunks = new ArrayList<>();
+	private int recordCount;
+
+	RecordBoundaryScanner(MemorySegment doc, String recordName, long chunkSize) {
+		this.doc = doc;
+		this.size = doc.byteSize();
+		this.recordName = recordName.getBytes(StandardCharsets.UTF_8);
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * The end of the prolog: everything up to and including the root element's start tag.
+	 * The prolog carries the context (the encoding, entity declarations, and namespace declarations) that each chunk needs.
+	 */
+	long prologEnd() {
+		return prologEnd;
+	}
+
+	String rootName() {
+		return rootName;
+	}
+
+	List<Chunk> chunks() {
+		return chunks;
+	}
+
+	int recordCount() {
+		return recordCount;
+	}
+
+	void scan() throws BinderException {
+		final var rootStart = skipProlog();
+		rootName = new String(readName(rootStart + 1), StandardCharsets.UTF_8);
+		prologEnd = endOfTag(rootStart);
+		if (byteAt(prologEnd - 2) == '/') {
+			// An empty root element has no records
+			return;
+		}
+
+		long chunkStart = -1;
+		int chunkFirstRecord = 0;
+		long lastRecordEnd = -1;
+		boolean inRecord = false;
+		int depth = 1;
+		long pos = prologEnd;
+		while (depth > 0) {
+			final var lt = indexOf('<', pos);
+			final var next = byteAt(lt + 1);
+			if (next == '!') {
+				if (startsWith(lt, "<!--")) {
+					pos = indexOf("-->", lt + 4) + 3;
+				} else if (startsWith(lt, "<![CDATA[")) {
+					pos = indexOf("]]>", lt + 9) + 3;
+				} else {
+					pos = endOfTag(lt);
+				}
+				continue;
+			}
+			if (next == '?') {
+				pos = indexOf("?>", lt + 2) + 2;
+				continue;
+			}
+
+			long recordEnd = -1;
+			if (next == '/') {
+				depth--;
+				pos = indexOf('>', lt) + 1;
+				if (depth == 1 && inRecord) {
+					recordEnd = pos;
+				}
+			} else {
+				final var tagEnd = endOfTag(lt);
+				final var selfClosing = byteAt(tagEnd - 2) == '/';
+				if (depth == 1) {
+					inRecord = nameEquals(lt + 1, recordName);
+					if (inRecord) {
+						recordCount++;
+						if (chunkStart < 0) {
+							chunkStart = lt;
+						}
+						if (selfClosing) {
+							recordEnd = tagEnd;
+						}
+					}
+				}
+				if (!selfClosing) {
+					depth++;
+				}
+				pos = tagEnd;
+			}
+
+			if (recordEnd >= 0) {
+				inRecord = false;
+				lastRecordEnd = recordEnd;
+				if (recordEnd - chunkStart >= chunkSize) {
+					chunks.add(new Chunk(chunkStart, recordEnd, chunkFirstRecord, recordCount - chunkFirstRecord));
+					chunkStart = -1;
+					chunkFirstRecord = recordCount;
+				}
+			}
+		}
+		if (chunkStart >= 0) {
+			chunks.add(new Chunk(chunkStart, lastRecordEnd, chunkFirstRecord, recordCount - chunkFirstRecord));
+		}
+	}
+
+	/**
+	 * Skips the XML declaration, comments, processing instructions, and the document type declaration.
+	 * @return The position of the root element's start tag.
+	 */
+	private long skipProlog() throws BinderException {
+		if (size >= 2 && ((byteAt(0) == (byte) 0xFE && byteAt(1) == (byte) 0xFF) || (byteAt(0) == (byte) 0xFF && byteAt(1) == (byte) 0xFE))) {
+			throw new BinderException("the document must be in an ASCII-compatible encoding, but it starts with a UTF-16 byte order mark");
+		}
+		long pos = 0;
+		while (true) {
+			final var lt = indexOf('<', pos);
+			if (startsWith(lt, "<?")) {
+				pos = indexOf("?>", lt + 2) + 2;
+			} else if (startsWith(lt, "<!--")) {
+				pos = indexOf("-->", lt + 4) + 3;
+			} else if (startsWith(lt, "<!")) {
+				pos = endOfDoctype(lt);
+			} else {
+				return lt;
+			}
+		}
+	}
+
+	private long endOfDoctype(long start) throws BinderException {
+		int brackets = 0;
+		long pos = start + 2;
+		while (true) {
+			final var b = byteAt(pos);
+			if (b == '"' || b == '\'') {
+				pos = indexOf(b, pos + 1) + 1;
+				continue;
+			}
+			if (b == '<' && startsWith(pos, "<!--")) {
+				pos = indexOf("-->", pos + 4) + 3;
+				continue;
+			}
+			if (b == '[') {
+				brackets++;
+			} else if (b == ']') {
+				brackets--;
+			} else if (b == '>' && brackets == 0) {
+				return pos + 1;
+			}
+			pos++;
+		}
+	}
+
+	/**
+	 * @return The position right after the end of the tag starting at <code>start</code>.
+	 */
+	private long endOfTag(long start) throws BinderException {
+		long pos = start + 1;
+		while (true) {
+			final var b = byteAt(pos);
+			if (b == '"' || b == '\'') {
+				pos = indexOf(b, pos + 1) + 1;
+				continue;
+			}
+			if (b == '>') {
+				return pos + 1;
+			}
+			pos++;
+		}
+	}
+
+	private byte[] readName(long start) throws BinderException {
+		long end = start;
+		while (end < size && !isNameEnd(byteAt(end))) {
+			end++;
+		}
+		return doc.asSlice(start, end - start).toArray(ValueLayout.JAVA_BYTE);
+	}
+
+	private boolean nameEquals(long start, byte[] name) throws BinderException {
+		if (start + name.length >= size) {
+			return false;
+		}
+		for (int i = 0; i < name.length; i++) {
+			if (byteAt(start + i) != name[i]) {
+				return false;
+			}
+		}
+		return isNameEnd(byteAt(start + name.length));
+	}
+
+	private static boolean isNameEnd(byte b) {
+		return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == '/' || b == '>';
+	}
+
+	private boolean startsWith(long pos, String prefix) {
+		if (pos + prefix.length() > size) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (doc.get(ValueLayout.JAVA_BYTE, pos + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private long indexOf(byte b, long from) throws BinderException {
+		for (long pos = from; pos < size; pos++) {
+			if (doc.get(ValueLayout.JAVA_BYTE, pos) == b) {
+				return pos;
+			}
+		}
+		throw unexpectedEnd();
+	}
+
+	private long indexOf(char c, long from) throws BinderException {
+		return indexOf((byte) c, from);
+	}
+
+	private long indexOf(String str, long from) throws BinderException {
+		final var first = (byte) str.charAt(0);
+		for (long pos = indexOf(first, from); ; pos = indexOf(first, pos + 1)) {
+			if (startsWith(pos, str)) {
+				return pos;
+			}
+		}
+	}
+
+	private byte byteAt(long pos) throws BinderException {
+		if (pos >= size) {
+			throw unexpectedEnd();
+		}
+		return doc.get(ValueLayout.JAVA_BYTE, pos);
+	}
+
+	private BinderException unexpectedEnd() {
+		return new BinderException("failed to find the record boundaries: unexpected end of the document");
+	}
+}
@@ -0,0 +1,296 @@
+package com.ivankatalenic.java.xml.binder;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records bound column by column: each record component is stored in its own column, in the order of the records,
+ * instead of an instance being created for each record.
+ * Primitive components are stored in primitive columns, either on the heap or off-heap in an arena,
+ * and all the other components are stored in object columns on the heap.
+ *
+ * @param <T> The type of the record class.
+ */
+public final class RecordTable<T extends Record> {
+	/**
+	 * A column of the values of a single record component.
+	 */
+	public static final class Column {
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private final String name;
+		private final Class<?> type;
+		/**
+		 * The layout of the values of a primitive column, or <code>null</code> for an object column.
+		 */
+		private final ValueLayout layout;
+		/**
+		 * The arena of an off-heap primitive column, or <code>null</code> for a heap column.
+		 */
+		private final Arena arena;
+		private MemorySegment values;
+		private Object[] objects;
+		private int size;
+
+		Column(String name, Class<?> type, Arena arena, int capacity) {
+			this.name = name;
+			this.type = type;
+			layout = layoutOf(type);
+			this.arena = layout != null ? arena : null;
+			capacity = Math.max(capacity, 1);
+			if (layout == null) {
+				objects = new Object[capacity];
+			} else {
+				values = allocate(capacity);
+			}
+		}
+
+		private static ValueLayout layoutOf(Class<?> type) {
+			if (type == long.class) {
+				return ValueLayout.JAVA_LONG;
+			} else if (type == int.class) {
+				return ValueLayout.JAVA_INT;
+			} else if (type == short.class) {
+				return ValueLayout.JAVA_SHORT;
+			} else if (type == byte.class) {
+				return ValueLayout.JAVA_BYTE;
+			} else if (type == char.class) {
+				return ValueLayout.JAVA_CHAR;
+			} else if (type == double.class) {
+				return ValueLayout.JAVA_DOUBLE;
+			} else if (type == float.class) {
+				return ValueLayout.JAVA_FLOAT;
+			} else if (type == boolean.class) {
+				return ValueLayout.JAVA_BOOLEAN;
+			}
+			return null;
+		}
+
+		private MemorySegment allocate(int capacity) {
+			if (arena != null) {
+				return arena.allocate(layout.byteSize() * capacity, layout.byteAlignment());
+			}
+			// A heap segment must be backed by an array of the same element size, so that it's aligned for the layout
+			if (type == long.class) {
+				return MemorySegment.ofArray(new long[capacity]);
+			} else if (type == int.class) {
+				return MemorySegment.ofArray(new int[capacity]);
+			} else if (type == short.class) {
+				return MemorySegment.ofArray(new short[capacity]);
+			} else if (type == char.class) {
+				return MemorySegment.ofArray(new char[capacity]);
+			} else if (type == double.class) {
+				return MemorySegment.ofArray(new double[capacity]);
+			} else if (type == float.class) {
+				return MemorySegment.ofArray(new float[capacity]);
+			}
+			return MemorySegment.ofArray(new byte[capacity]);
+		}
+
+		void append(Object value) throws BinderException {
+			if (layout == null) {
+				if (size == objects.length) {
+					objects = Arrays.copyOf(objects, grow(size));
+				}
+				objects[size++] = value;
+				return;
+			}
+			if (value == null) {
+				throw new BinderException("cannot store a missing value in the primitive column \"%s\"".formatted(name));
+			}
+			if (size == values.byteSize() / layout.byteSize()) {
+				final var grown = allocate(grow(size));
+				MemorySegment.copy(values, 0, grown, 0, values.byteSize());
+				values = grown;
+			}
+			switch (value) {
+				case Long v -> values.setAtIndex(ValueLayout.JAVA_LONG, size, v);
+				case Integer v -> values.setAtIndex(ValueLayout.JAVA_INT, size, v);
+				case Short v -> values.setAtIndex(ValueLayout.JAVA_SHORT, size, v);
+				case Byte v -> values.setAtIndex(ValueLayout.JAVA_BYTE, size, v);
+				case Character v -> values.setAtIndex(ValueLayout.JAVA_CHAR, size, v);
+				case Double v -> values.setAtIndex(ValueLayout.JAVA_DOUBLE, size, v);
+				case Float v -> values.setAtIndex(ValueLayout.JAVA_FLOAT, size, v);
+				case Boolean v -> values.setAtIndex(ValueLayout.JAVA_BOOLEAN, size, v);
+				default -> throw new BinderException("cannot store a value of %s in the column \"%s\" of %s".formatted(value.getClass().getName(), name, type.getName()));
+			}
+			size++;
+		}
+
+		private static int grow(int size) {
+			if (size >= Integer.MAX_VALUE - 8) {
+				throw new OutOfMemoryError("the column is too large");
+			}
+			return (int) Math.min(Math.max(size * 2L, INITIAL_CAPACITY), Integer.MAX_VALUE - 8);
+		}
+
+		public String name() {
+			return name;
+		}
+
+		/**
+		 * @return The type of the record component.
+		 */
+		public Class<?> type() {
+			return type;
+		}
+
+		/**
+		 * @return Whether the values are stored in a primitive column.
+		 */
+		public boolean isPrimitive() {
+			return layout != null;
+		}
+
+		/**
+		 * @return The values of a primitive column as a read-only memory segment, with the layout of the column's type.
+		 * @throws IllegalStateException If the column isn't a primitive column.
+		 */
+		public MemorySegment segment() {
+			if (layout == null) {
+				throw new IllegalStateException("the column \"%s\" of %s isn't a primitive column".formatted(name, type.getName()));
+			}
+			return values.asSlice(0, size * layout.byteSize()).asReadOnly();
+		}
+
+		/**
+		 * @return The value of the given row, boxed if the column is a primitive column.
+		 */
+		public Object get(int row) {
+			checkRow(row);
+			if (layout == null) {
+				return objects[row];
+			}
+			return switch (layout) {
+				case ValueLayout.OfLong l -> values.getAtIndex(l, row);
+				case ValueLayout.OfInt l -> values.getAtIndex(l, row);
+				case ValueLayout.OfShort l -> values.getAtIndex(l, row);
+				case ValueLayout.OfByte l -> values.getAtIndex(l, row);
+				case ValueLayout.OfChar l -> values.getAtIndex(l, row);
+				case ValueLayout.OfDouble l -> values.getAtIndex(l, row);
+				case ValueLayout.OfFloat l -> values.getAtIndex(l, row);
+				case ValueLayout.OfBoolean l -> values.getAtIndex(l, row);
+				default -> throw new IllegalStateException("unexpected layout " + layout);
+			};
+		}
+
+		public long getLong(int row) {
+			checkAccess(long.class, row);
+			return values.getAtIndex(ValueLayout.JAVA_LONG, row);
+		}
+
+		public int getInt(int row) {
+			checkAccess(int.class, row);
+			return values.getAtIndex(ValueLayout.JAVA_INT, row);
+		}
+
+		public short getShort(int row) {
+			checkAccess(short.class, row);
+			return values.getAtIndex(ValueLayout.JAVA_SHORT, row);
+		}
+
+		public byte getByte(int row) {
+			checkAccess(byte.class, row);
+			return values.getAtIndex(ValueLayout.JAVA_BYTE, row);
+		}
+
+		public char getChar(int row) {
+			checkAccess(char.class, row);
+			return values.getAtIndex(ValueLayout.JAVA_CHAR, row);
+		}
+
+		public double getDouble(int row) {
+			checkAccess(double.class, row);
+			return values.getAtIndex(ValueLayout.JAVA_DOUBLE, row);
+		}
+
+		public float getFloat(int row) {
+			checkAccess(float.class, row);
+			return values.getAtIndex(ValueLayout.JAVA_FLOAT, row);
+		}
+
+		public boolean getBoolean(int row) {
+			checkAccess(boolean.class, row);
+			return values.getAtIndex(ValueLayout.JAVA_BOOLEAN, row);
+		}
+
+		private void checkAccess(Class<?> accessType, int row) {
+			if (type != accessType) {
+				throw new IllegalStateException("the column \"%s\" holds values of %s, not of %s".formatted(name, type.getName(), accessType.getName()));
+			}
+			checkRow(row);
+		}
+
+		private void checkRow(int row) {
+			if (row < 0 || row >= size) {
+				throw new IndexOutOfBoundsException("the row %d is out of the column \"%s\" with %d rows".formatted(row, name, size));
+			}
+		}
+	}
+
+	private final Class<T> recordClass;
+	private final Constructor<?> recordConstructor;
+	private final List<Column> columns;
+	private final Map<String, Column> columnsByName;
+	private final int rowCount;
+
+	RecordTable(Class<T> recordClass, Constructor<?> recordConstructor, Column[] columns, int rowCount) {
+		this.recordClass = recordClass;
+		this.recordConstructor = recordConstructor;
+		this.columns = List.of(columns);
+		columnsByName = new HashMap<>();
+		for (final var column : columns) {
+			columnsByName.put(column.name(), column);
+		}
+		this.rowCount = rowCount;
+	}
+
+	public Class<T> recordClass() {
+		return recordClass;
+	}
+
+	public int rowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * @return The columns, in the order of the record components.
+	 */
+	public List<Column> columns() {
+		return columns;
+	}
+
+	/**
+	 * @param name The name of the record component.
+	 * @throws IllegalArgumentException If the record doesn't have a component with the name.
+	 */
+	public Column column(String name) {
+		final var column = columnsByName.get(name);
+		if (column == null) {
+			throw new IllegalArgumentException("the record %s doesn't have a component \"%s\"".formatted(recordClass.getName(), name));
+		}
+		return column;
+	}
+
+	/**
+	 * Creates an instance of the record from the values of the given row.
+	 * @throws BinderException If the record's constructor fails.
+	 */
+	public T row(int index) throws BinderException {
+		final var values = new Object[columns.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = columns.get(i).get(index);
+		}
+		try {
+			return recordClass.cast(recordConstructor.newInstance(values));
+		} catch (Exception e) {
+			throw new BinderException("failed to create an instance of the record class %s from the row %d".formatted(recordClass.getName(), index), e);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package com.ivankatalenic.java.xml.binder;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Node;
+import org.w3c.dom.ls.DOMImplementationLS;
+import org.w3c.dom.ls.LSException;
+import org.w3c.dom.ls.LSSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A part of an XML document that's captured as it is, without binding it into objects.
+ * It only holds a reference to the element/attribute in the DOM tree, so the whole DOM tree stays in memory while the fragment is reachable.
+ * The fragment is serialized or bound only when it's accessed.
+ * <p>
+ * Like the DOM tree it refers to, the fragment isn't thread-safe.
+ *
+ * @see com.ivankatalenic.java.xml.binder.annotations.XMLRaw
+ */
+public final class XMLFragment {
+	private final Node node;
+	private final Binder binder;
+
+	XMLFragment(Node node, Binder binder) {
+		this.node = node;
+		this.binder = binder;
+	}
+
+	/**
+	 * @return The element/attribute the fragment refers to.
+	 */
+	public Node node() {
+		return node;
+	}
+
+	/**
+	 * @return The markup of the element, including the namespace declarations it needs, or the value of the attribute.
+	 * @throws BinderException If the element cannot be serialized.
+	 */
+	public String asString() throws BinderException {
+		if (node instanceof Attr attr) {
+			return attr.getValue();
+		}
+		try {
+			return createSerializer().writeToString(node);
+		} catch (LSException e) {
+			throw new BinderException("failed to serialize the fragment \"%s\"".formatted(node.getNodeName()), e);
+		}
+	}
+
+	/**
+	 * @return The UTF-8 encoded markup of the element, or the value of the attribute.
+	 * @throws BinderException If the element cannot be serialized.
+	 */
+	public byte[] asBytes() throws BinderException {
+		if (node instanceof Attr attr) {
+			return attr.getValue().getBytes(StandardCharsets.UTF_8);
+		}
+		final var impl = (DOMImplementationLS) node.getOwnerDocument().getImplementation();
+		final var output = impl.createLSOutput();
+		final var bytes = new ByteArrayOutputStream();
+		output.setByteStream(bytes);
+		output.setEncoding(StandardCharsets.UTF_8.name());
+		try {
+			createSerializer().write(node, output);
+		} catch (LSException e) {
+			throw new BinderException("failed to serialize the fragment \"%s\"".formatted(node.getNodeName()), e);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Binds the fragment into an instance of the <code>destClass</code>, the same way as a field of the <code>destClass</code> type is bound.
+	 * @param destClass The user-defined class with possibly annotated fields that will contain the data from the fragment.
+	 * @return An instance of the <code>destClass</code>.
+	 * @param <T> The type of the destination class.
+	 * @throws BinderException If binding fails.
+	 */
+	public <T> T bindTo(Class<T> destClass) throws BinderException {
+		// The binder that captured the fragment might be binding on another thread, so a copy of it binds the fragment
+		return new Binder(binder).bindNode(node, destClass);
+	}
+
+	@Override
+	public String toString() {
+		return "XMLFragment[%s]".formatted(node.getNodeName());
+	}
+
+	private LSSerializer createSerializer() {
+		final var impl = (DOMImplementationLS) node.getOwnerDocument().getImplementation();
+		final var serializer = impl.createLSSerializer();
+		serializer.getDomConfig().setParameter("xml-declaration", false);
+		return serializer;
+	}
+}
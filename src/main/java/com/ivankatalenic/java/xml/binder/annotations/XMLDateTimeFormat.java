@@ -0,0 +1,17 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies the pattern (as defined by <code>java.time.format.DateTimeFormatter</code>) from which to parse the given
+ * <code>java.time</code> field, instead of the default ISO-8601 format.
+ * The formatter for each pattern is created once and cached.
+ */
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLDateTimeFormat {
+	String value();
+}
@@ -0,0 +1,37 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * When placed on a record, it specifies that equal bound instances of the record are replaced with a single canonical instance,
+ * so that a document repeating the same values many times doesn't retain a separate instance for each repetition.
+ * The instances are compared with the record's <code>equals</code> method.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLDeduplicate {
+	/**
+	 * How long the canonical instances are remembered.
+	 */
+	Scope scope() default Scope.BIND;
+
+	/**
+	 * The maximum number of canonical instances remembered for the record.
+	 * Once it's reached, new distinct instances are no longer remembered, but they're still bound.
+	 */
+	int maxSize() default 1 << 16;
+
+	enum Scope {
+		/**
+		 * Only the instances bound by a single call of a binder's method share the canonical instances.
+		 */
+		BIND,
+		/**
+		 * All the instances bound by the same binder share the canonical instances.
+		 */
+		BINDER,
+	}
+}
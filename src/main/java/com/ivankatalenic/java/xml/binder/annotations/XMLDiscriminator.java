@@ -0,0 +1,19 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * When placed on a sealed interface/class, it specifies the attribute whose value chooses the permitted subtype to bind into.
+ * Without this annotation, the subtype is chosen by the element's name,
+ * and a field of the sealed type is parsed from the first child element named after any of the subtypes.
+ *
+ * @see XMLTypeName
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLDiscriminator {
+	String value();
+}
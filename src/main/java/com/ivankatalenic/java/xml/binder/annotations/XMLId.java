@@ -0,0 +1,16 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies that the given field holds the id of the bound instance, so that the instance can be referenced
+ * by the fields with the {@link XMLIdRef} annotation.
+ * The ids must be unique within the bound document, or within a single record when binding records one by one.
+ */
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLId {
+}
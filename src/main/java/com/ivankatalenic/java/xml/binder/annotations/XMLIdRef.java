@@ -0,0 +1,23 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies that the given field is parsed from the id of an instance bound elsewhere in the document,
+ * and that the field takes in that same instance instead of a new one.
+ * If the field has an array type, each array element is parsed from an id.
+ * <p>
+ * The fields are bound in the order of their declarations, so the binding order may differ from the document order.
+ * An instance can be referenced before it's bound (a forward reference) from a field of a class or from an array element,
+ * and the reference is set once the whole document is bound.
+ * A record component, however, can only reference an instance bound before it.
+ *
+ * @see XMLId
+ */
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLIdRef {
+}
@@ -7,9 +7,18 @@ import java.lang.annotation.Target;
 
 /**
  * Specifies the element/attribute's name from which to parse the given field.
+ * A prefixed name (e.g. <code>soap:Body</code>) matches the element/attribute with the same prefix, as written in the document.
+ * Prefer an unprefixed name with a {@link #namespace()}, which matches whatever prefix the document uses.
  */
 @Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface XMLName {
 	String value();
+
+	/**
+	 * The namespace URI of the element/attribute.
+	 * If it's empty, the namespace is taken from the class' {@link XMLNamespace} annotation for elements,
+	 * and elements/attributes in any namespace match the name if there's no such annotation.
+	 */
+	String namespace() default "";
 }
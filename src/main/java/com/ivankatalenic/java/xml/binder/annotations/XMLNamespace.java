@@ -0,0 +1,17 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies the namespace URI of the elements from which the fields of the annotated class are parsed,
+ * unless a field specifies its own namespace with {@link XMLName#namespace()}.
+ * Attributes aren't affected, since unprefixed attributes don't belong to any namespace.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLNamespace {
+	String value();
+}
@@ -0,0 +1,23 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies a path, relative to the parent element, to the element/attribute from which to parse the given field,
+ * so that the elements in between don't need their own classes.
+ * <p>
+ * A path made of element names separated by slashes, and optionally ending with an attribute (e.g. <code>a/b/@c</code>),
+ * is followed directly, and the names match the elements/attributes in any namespace.
+ * Any other path is evaluated as an XPath 1.0 expression, and the first selected node is used.
+ * The path is compiled only once per class.
+ * <p>
+ * It can't be combined with {@link XMLName} and {@link XMLFromAttribute} annotations.
+ */
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLPath {
+	String value();
+}
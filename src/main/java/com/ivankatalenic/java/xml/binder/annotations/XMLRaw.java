@@ -0,0 +1,17 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies that the element/attribute is captured as it is, instead of being bound into objects.
+ * The annotated field must have the {@link com.ivankatalenic.java.xml.binder.XMLFragment} type,
+ * which only refers to the node in the DOM tree, or the <code>String</code> type, which takes the element's markup.
+ * Fields of the {@link com.ivankatalenic.java.xml.binder.XMLFragment} type are captured even without this annotation.
+ */
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLRaw {
+}
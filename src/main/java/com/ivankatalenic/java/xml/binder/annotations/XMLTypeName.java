@@ -0,0 +1,18 @@
+package com.ivankatalenic.java.xml.binder.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies the name by which the annotated subtype of a sealed interface/class is chosen when binding polymorphically.
+ * The name is matched against the element's name, or against the value of the discriminator attribute
+ * if the sealed interface/class has the {@link XMLDiscriminator} annotation.
+ * Without this annotation, the name is the class' simple name in lower case.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface XMLTypeName {
+	String value();
+}
@@ -0,0 +1,130 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import org.w3c.dom.Node;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Decodes the base64 text of a node while reading it, chunk by chunk, straight from the strings held by the DOM tree.
+ * The text uses the standard base64 alphabet, with optional padding, and whitespace anywhere in the text is ignored.
+ */
+final class Base64NodeInputStream extends InputStream {
+	private static final int WHITESPACE = -2;
+	private static final int PADDING = -3;
+	private static final int[] DECODE = new int[128];
+
+	static {
+		Arrays.fill(DECODE, -1);
+		final var alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for (int i = 0; i < alphabet.length(); i++) {
+			DECODE[alphabet.charAt(i)] = i;
+		}
+		DECODE[' '] = WHITESPACE;
+		DECODE['\t'] = WHITESPACE;
+		DECODE['\n'] = WHITESPACE;
+		DECODE['\r'] = WHITESPACE;
+		DECODE['='] = PADDING;
+	}
+
+	private final TextChunks chunks;
+	private String chunk = "";
+	private int chunkPos;
+	/**
+	 * The decoded bits that don't make a whole byte yet.
+	 */
+	private int bits;
+	private int bitCount;
+	private boolean padded;
+	private boolean finished;
+
+	Base64NodeInputStream(Node node) {
+		chunks = new TextChunks(node);
+	}
+
+	/**
+	 * Decodes the whole text of the node into an array of the exact size, without an intermediate buffer.
+	 */
+	static byte[] decode(Node node) throws IOException {
+		final var sizeChunks = new TextChunks(node);
+		long digits = 0;
+		for (var chunk = sizeChunks.next(); chunk != null; chunk = sizeChunks.next()) {
+			for (int i = 0; i < chunk.length(); i++) {
+				final var c = chunk.charAt(i);
+				if (c < DECODE.length && DECODE[c] >= 0) {
+					digits++;
+				}
+			}
+		}
+		final var size = digits * 6 / 8;
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IOException("the decoded base64 text is too large for an array");
+		}
+		final var bytes = new byte[(int) size];
+		try (final var input = new Base64NodeInputStream(node)) {
+			final var read = input.readNBytes(bytes, 0, bytes.length);
+			if (read != bytes.length || input.read() != -1) {
+				throw new IOException("the base64 text changed while it was decoded");
+			}
+		}
+		return bytes;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final var single = new byte[1];
+		return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int count = 0;
+		while (count < len) {
+			if (bitCount >= 8) {
+				bitCount -= 8;
+				b[off + count++] = (byte) (bits >>> bitCount);
+				bits &= (1 << bitCount) - 1;
+				continue;
+			}
+			if (chunk != null && chunkPos == chunk.length()) {
+				chunk = chunks.next();
+				chunkPos = 0;
+				continue;
+			}
+			if (chunk == null) {
+				finish();
+				break;
+			}
+			final var c = chunk.charAt(chunkPos++);
+			final var value = c < DECODE.length ? DECODE[c] : -1;
+			if (value == WHITESPACE) {
+				continue;
+			}
+			if (value == PADDING) {
+				padded = true;
+				continue;
+			}
+			if (value < 0 || padded) {
+				throw new IOException("invalid base64 character '%c'".formatted(c));
+			}
+			bits = (bits << 6) | value;
+			bitCount += 6;
+		}
+		return count == 0 ? -1 : count;
+	}
+
+	private void finish() throws IOException {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		// A single character of the last group of four doesn't encode a whole byte
+		if (bitCount == 6) {
+			throw new IOException("the base64 text is truncated");
+		}
+	}
+}
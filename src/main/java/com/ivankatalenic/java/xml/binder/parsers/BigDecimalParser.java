@@ -0,0 +1,101 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+
+import static com.ivankatalenic.java.xml.binder.parsers.Commons.extractString;
+
+public class BigDecimalParser implements Parser {
+	/**
+	 * Any unscaled value with at most this many digits fits into a long.
+	 */
+	private static final int MAX_LONG_DIGITS = 18;
+	private static final int MAX_EXPONENT_DIGITS = 9;
+
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		final var nodeText = extractString(srcNode);
+		try {
+			final var parsed = parseSmall(nodeText);
+			if (parsed != null) {
+				return parsed;
+			}
+			return new BigDecimal(nodeText);
+		} catch (Exception e) {
+			throw new BinderException("failed to parse a BigDecimal from a node text \"%s\"".formatted(nodeText), e);
+		}
+	}
+
+	/**
+	 * Parses a decimal whose unscaled value fits into a long, without the intermediate character arrays and big integers
+	 * used by the BigDecimal's string constructor.
+	 * @return The parsed decimal, or <code>null</code> if the text isn't a small decimal.
+	 */
+	static BigDecimal parseSmall(String text) {
+		final var length = text.length();
+		int pos = 0;
+		boolean negative = false;
+		if (pos < length && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+			negative = text.charAt(pos) == '-';
+			pos++;
+		}
+		long unscaled = 0;
+		int digits = 0;
+		int scale = 0;
+		boolean inFraction = false;
+		for (; pos < length; pos++) {
+			final var c = text.charAt(pos);
+			if (c == '.' && !inFraction) {
+				inFraction = true;
+				continue;
+			}
+			if (c < '0' || c > '9') {
+				break;
+			}
+			if (++digits > MAX_LONG_DIGITS) {
+				return null;
+			}
+			unscaled = unscaled * 10 + (c - '0');
+			if (inFraction) {
+				scale++;
+			}
+		}
+		if (digits == 0) {
+			return null;
+		}
+		if (pos < length) {
+			final var c = text.charAt(pos);
+			if (c != 'e' && c != 'E') {
+				return null;
+			}
+			pos++;
+			boolean negativeExp = false;
+			if (pos < length && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+				negativeExp = text.charAt(pos) == '-';
+				pos++;
+			}
+			final var expDigits = length - pos;
+			if (expDigits == 0 || expDigits > MAX_EXPONENT_DIGITS) {
+				return null;
+			}
+			long exp = 0;
+			for (; pos < length; pos++) {
+				final var e = text.charAt(pos);
+				if (e < '0' || e > '9') {
+					return null;
+				}
+				exp = exp * 10 + (e - '0');
+			}
+			final long newScale = scale - (negativeExp ? -exp : exp);
+			if (newScale < Integer.MIN_VALUE || newScale > Integer.MAX_VALUE) {
+				return null;
+			}
+			scale = (int) newScale;
+		}
+		return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+	}
+}
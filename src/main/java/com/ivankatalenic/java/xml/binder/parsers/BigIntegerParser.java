@@ -0,0 +1,31 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.lang.annotation.Annotation;
+import java.math.BigInteger;
+
+import static com.ivankatalenic.java.xml.binder.parsers.Commons.extractString;
+
+public class BigIntegerParser implements Parser {
+	/**
+	 * Any integer with at most this many digits fits into a long.
+	 */
+	private static final int MAX_LONG_DIGITS = 18;
+
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		final var nodeText = extractString(srcNode);
+		try {
+			final var digits = nodeText.length() - (nodeText.startsWith("-") || nodeText.startsWith("+") ? 1 : 0);
+			if (digits <= MAX_LONG_DIGITS) {
+				return BigInteger.valueOf(Long.parseLong(nodeText));
+			}
+			return new BigInteger(nodeText);
+		} catch (Exception e) {
+			throw new BinderException("failed to parse a BigInteger from a node text \"%s\"".formatted(nodeText), e);
+		}
+	}
+}
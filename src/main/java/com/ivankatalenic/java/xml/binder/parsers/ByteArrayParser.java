@@ -0,0 +1,24 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+
+import static com.ivankatalenic.java.xml.binder.parsers.Commons.calculateNodeLocation;
+
+/**
+ * Decodes the base64 text of a node, without first concatenating the text into a single string.
+ */
+public class ByteArrayParser implements Parser {
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		try {
+			return Base64NodeInputStream.decode(srcNode);
+		} catch (IOException e) {
+			throw new BinderException("failed to decode base64 text from a node \"%s\"".formatted(calculateNodeLocation(srcNode)), e);
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Exposes the untrimmed text of a node as a character sequence over the strings held by the DOM tree,
+ * without concatenating them if the text is split into multiple nodes.
+ */
+public class CharSequenceParser implements Parser {
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		return NodeTextSequence.of(srcNode);
+	}
+}
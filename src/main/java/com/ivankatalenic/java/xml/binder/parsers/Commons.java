@@ -16,6 +16,18 @@ public class Commons {
 		return text.trim();
 	}
 
+	/**
+	 * Extracts the text of the node without trimming it, so that the callers that skip the surrounding whitespace themselves
+	 * don't need a trimmed copy of the text.
+	 */
+	public static String extractText(Node node) throws BinderException {
+		final var text = node.getTextContent();
+		if (text == null) {
+			throw new BinderException("failed to extract string from a node \"%s\"".formatted(calculateNodeLocation(node)));
+		}
+		return text;
+	}
+
 	public static String calculateNodeLocation(Node node) {
 		if (node instanceof Attr at) {
 			return calculateNodeLocation(at.getOwnerElement()) + " Attribute: " + at.getName();
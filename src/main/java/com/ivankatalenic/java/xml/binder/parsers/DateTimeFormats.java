@@ -0,0 +1,55 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.annotations.XMLDateTimeFormat;
+
+import java.lang.annotation.Annotation;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the formatters for the custom date-time patterns specified by {@link XMLDateTimeFormat} annotations.
+ * Creating a formatter from a pattern is expensive, so each formatter is created only once.
+ */
+final class DateTimeFormats {
+	private record Key(String pattern, ZoneId zone) {
+	}
+
+	private static final Map<Key, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+	private DateTimeFormats() {
+	}
+
+	/**
+	 * @return The formatter for the pattern specified on the destination, or <code>null</code> if there's no custom pattern.
+	 */
+	static DateTimeFormatter customFormatter(Annotation[] destAnnotations) {
+		return customFormatter(destAnnotations, null);
+	}
+
+	/**
+	 * @param zone The zone used when the pattern doesn't parse a zone or an offset; <code>null</code> for no zone.
+	 * @return The formatter for the pattern specified on the destination, or <code>null</code> if there's no custom pattern.
+	 */
+	static DateTimeFormatter customFormatter(Annotation[] destAnnotations, ZoneId zone) {
+		if (destAnnotations == null) {
+			return null;
+		}
+		for (final var annotation : destAnnotations) {
+			if (annotation instanceof XMLDateTimeFormat format) {
+				return FORMATTERS.computeIfAbsent(new Key(format.value(), zone), DateTimeFormats::createFormatter);
+			}
+		}
+		return null;
+	}
+
+	private static DateTimeFormatter createFormatter(Key key) {
+		final var formatter = DateTimeFormatter.ofPattern(key.pattern(), Locale.ROOT);
+		if (key.zone() == null) {
+			return formatter;
+		}
+		return formatter.withZone(key.zone());
+	}
+}
@@ -7,14 +7,14 @@ import org.w3c.dom.Node;
 import java.lang.annotation.Annotation;
 
 import static com.ivankatalenic.java.xml.binder.parsers.Commons.calculateNodeLocation;
-import static com.ivankatalenic.java.xml.binder.parsers.Commons.extractString;
+import static com.ivankatalenic.java.xml.binder.parsers.Commons.extractText;
 
 public class DoubleParser implements Parser {
 	@Override
 	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
 		try {
-			final var text = extractString(srcNode);
-			return Double.parseDouble(text);
+			final var text = extractText(srcNode);
+			return FastDecimalParser.parseDouble(text);
 		} catch (Exception e) {
 			throw new BinderException("failed to parse an Double from a node \"%s\"".formatted(calculateNodeLocation(srcNode)), e);
 		}
@@ -0,0 +1,29 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.lang.annotation.Annotation;
+import java.time.Duration;
+
+import static com.ivankatalenic.java.xml.binder.parsers.Commons.extractString;
+
+public class DurationParser implements Parser {
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		final var nodeText = extractString(srcNode);
+		if (DateTimeFormats.customFormatter(destAnnotations) != null) {
+			throw new BinderException("failed to parse a Duration from a node text \"%s\": durations don't support custom date-time patterns".formatted(nodeText));
+		}
+		try {
+			final var parsed = IsoDateTimes.parseDuration(nodeText);
+			if (parsed != null) {
+				return parsed;
+			}
+			return Duration.parse(nodeText);
+		} catch (Exception e) {
+			throw new BinderException("failed to parse a Duration from a node text \"%s\"".formatted(nodeText), e);
+		}
+	}
+}
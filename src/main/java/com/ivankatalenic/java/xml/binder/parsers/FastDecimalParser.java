@@ -0,0 +1,323 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import java.math.BigInteger;
+
+/**
+ * A fast parser of decimal floating-point numbers that works directly on character ranges.
+ * <p>
+ * Numbers with at most 19 significant digits are converted with the Clinger fast path when the result is exact,
+ * and with the Eisel-Lemire algorithm otherwise.
+ * All the other inputs (more significant digits, <code>NaN</code>, <code>Infinity</code>, hexadecimal notation,
+ * type suffixes, and invalid numbers), as well as the rare cases in which the Eisel-Lemire algorithm cannot decide
+ * the correctly rounded result, fall back to {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)}.
+ * Therefore, the results are always the same as the JDK's results.
+ * <p>
+ * Like the JDK's methods, leading and trailing whitespace (any character up to <code>' '</code>) is ignored.
+ */
+public final class FastDecimalParser {
+	private static final int MAX_MANTISSA_DIGITS = 19;
+	private static final int MAX_EXPONENT = 1_000_000;
+
+	private static final int SMALLEST_POWER_OF_FIVE = -342;
+	private static final int LARGEST_POWER_OF_FIVE = 308;
+	/**
+	 * 128-bit approximations of the powers of five, normalized so that the most significant bit is set.
+	 * The high 64 bits of 5^q are at index <code>2 * (q - SMALLEST_POWER_OF_FIVE)</code>, followed by the low 64 bits.
+	 */
+	private static final long[] POWERS_OF_FIVE = computePowersOfFive();
+
+	private static final double[] DOUBLE_POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+	private static final float[] FLOAT_POWERS_OF_TEN = {
+			1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+	};
+
+	/**
+	 * The parameters of an IEEE 754 binary format.
+	 */
+	private record BinaryFormat(
+			int mantissaExplicitBits,
+			int minimumExponent,
+			int infinitePower,
+			int minExponentRoundToEven,
+			int maxExponentRoundToEven,
+			int smallestPowerOfTen,
+			int largestPowerOfTen
+	) {
+	}
+
+	private static final BinaryFormat BINARY64 = new BinaryFormat(52, -1023, 0x7FF, -4, 23, -342, 308);
+	private static final BinaryFormat BINARY32 = new BinaryFormat(23, -127, 0xFF, -17, 10, -65, 38);
+
+	/**
+	 * The result of the Eisel-Lemire algorithm when the correctly rounded result cannot be decided.
+	 */
+	private static final long UNDECIDED = -1;
+
+	private FastDecimalParser() {
+	}
+
+	public static double parseDouble(CharSequence text) {
+		return parseDouble(text, 0, text.length());
+	}
+
+	/**
+	 * Parses the characters <code>[from, to)</code> of the <code>text</code> as a double.
+	 * @throws NumberFormatException If the characters don't represent a number.
+	 */
+	public static double parseDouble(CharSequence text, int from, int to) {
+		final var number = DecimalNumber.scan(text, from, to);
+		if (number == null) {
+			return Double.parseDouble(text.subSequence(from, to).toString());
+		}
+		if (number.mantissa == 0) {
+			return number.negative ? -0.0 : 0.0;
+		}
+		final var exp = number.exponent;
+		final var mantissa = number.mantissa;
+		double value;
+		if (exp >= -22 && exp <= 22 && mantissa >= 0 && mantissa <= (1L << 53)) {
+			// Both operands are exact, so a single operation is correctly rounded
+			value = mantissa;
+			value = exp < 0 ? value / DOUBLE_POWERS_OF_TEN[-exp] : value * DOUBLE_POWERS_OF_TEN[exp];
+		} else {
+			final var bits = computeFloat(BINARY64, exp, mantissa);
+			if (bits == UNDECIDED) {
+				return Double.parseDouble(text.subSequence(from, to).toString());
+			}
+			value = Double.longBitsToDouble(bits);
+		}
+		return number.negative ? -value : value;
+	}
+
+	public static float parseFloat(CharSequence text) {
+		return parseFloat(text, 0, text.length());
+	}
+
+	/**
+	 * Parses the characters <code>[from, to)</code> of the <code>text</code> as a float.
+	 * @throws NumberFormatException If the characters don't represent a number.
+	 */
+	public static float parseFloat(CharSequence text, int from, int to) {
+		final var number = DecimalNumber.scan(text, from, to);
+		if (number == null) {
+			return Float.parseFloat(text.subSequence(from, to).toString());
+		}
+		if (number.mantissa == 0) {
+			return number.negative ? -0.0f : 0.0f;
+		}
+		final var exp = number.exponent;
+		final var mantissa = number.mantissa;
+		float value;
+		if (exp >= -10 && exp <= 10 && mantissa >= 0 && mantissa <= (1L << 24)) {
+			value = mantissa;
+			value = exp < 0 ? value / FLOAT_POWERS_OF_TEN[-exp] : value * FLOAT_POWERS_OF_TEN[exp];
+		} else {
+			final var bits = computeFloat(BINARY32, exp, mantissa);
+			if (bits == UNDECIDED) {
+				return Float.parseFloat(text.subSequence(from, to).toString());
+			}
+			value = Float.intBitsToFloat((int) bits);
+		}
+		return number.negative ? -value : value;
+	}
+
+	/**
+	 * A decimal number <code>mantissa * 10^exponent</code>, where the mantissa is an unsigned 64-bit integer.
+	 */
+	private static final class DecimalNumber {
+		boolean negative;
+		long mantissa;
+		int exponent;
+
+		/**
+		 * @return The scanned number, or <code>null</code> if the number isn't a plain decimal number with at most 19 significant digits.
+		 */
+		static DecimalNumber scan(CharSequence text, int from, int to) {
+			while (from < to && text.charAt(from) <= ' ') {
+				from++;
+			}
+			while (to > from && text.charAt(to - 1) <= ' ') {
+				to--;
+			}
+			final var number = new DecimalNumber();
+			int pos = from;
+			if (pos < to && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+				number.negative = text.charAt(pos) == '-';
+				pos++;
+			}
+			long mantissa = 0;
+			int digits = 0;
+			int exponent = 0;
+			boolean anyDigit = false;
+			while (pos < to && isDigit(text.charAt(pos))) {
+				final var digit = text.charAt(pos) - '0';
+				anyDigit = true;
+				// Leading zeros aren't significant
+				if (mantissa != 0 || digit != 0) {
+					if (digits == MAX_MANTISSA_DIGITS) {
+						return null;
+					}
+					mantissa = mantissa * 10 + digit;
+					digits++;
+				}
+				pos++;
+			}
+			if (pos < to && text.charAt(pos) == '.') {
+				pos++;
+				while (pos < to && isDigit(text.charAt(pos))) {
+					final var digit = text.charAt(pos) - '0';
+					anyDigit = true;
+					if (mantissa != 0 || digit != 0) {
+						if (digits == MAX_MANTISSA_DIGITS) {
+							return null;
+						}
+						mantissa = mantissa * 10 + digit;
+						digits++;
+					}
+					exponent--;
+					pos++;
+				}
+			}
+			if (!anyDigit) {
+				return null;
+			}
+			if (pos < to && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+				pos++;
+				boolean negativeExp = false;
+				if (pos < to && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+					negativeExp = text.charAt(pos) == '-';
+					pos++;
+				}
+				final var expStart = pos;
+				int explicitExp = 0;
+				while (pos < to && isDigit(text.charAt(pos))) {
+					// Any larger exponent overflows or underflows anyway
+					if (explicitExp < MAX_EXPONENT) {
+						explicitExp = explicitExp * 10 + (text.charAt(pos) - '0');
+					}
+					pos++;
+				}
+				if (pos == expStart) {
+					return null;
+				}
+				exponent += negativeExp ? -explicitExp : explicitExp;
+			}
+			if (pos != to) {
+				// Type suffixes and invalid characters are left to the JDK
+				return null;
+			}
+			number.mantissa = mantissa;
+			number.exponent = exponent;
+			return number;
+		}
+
+		private static boolean isDigit(char c) {
+			return c >= '0' && c <= '9';
+		}
+	}
+
+	/**
+	 * The Eisel-Lemire algorithm, as described in "Number Parsing at a Gigabyte per Second" by Daniel Lemire.
+	 * @param q The decimal exponent.
+	 * @param w The non-zero decimal mantissa, an unsigned 64-bit integer.
+	 * @return The bits of the correctly rounded binary floating-point number, or {@link #UNDECIDED}.
+	 */
+	private static long computeFloat(BinaryFormat format, int q, long w) {
+		if (q < format.smallestPowerOfTen()) {
+			return 0;
+		}
+		if (q > format.largestPowerOfTen()) {
+			return (long) format.infinitePower() << format.mantissaExplicitBits();
+		}
+		final var lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+
+		// The 128-bit product of the mantissa and the power of five
+		final var index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+		final var precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (format.mantissaExplicitBits() + 3);
+		var high = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+		var low = w * POWERS_OF_FIVE[index];
+		if ((high & precisionMask) == precisionMask) {
+			// The truncated product might not be precise enough, so the next 64 bits of the power of five are included
+			final var secondHigh = Math.unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+			low += secondHigh;
+			if (Long.compareUnsigned(secondHigh, low) > 0) {
+				high++;
+			}
+		}
+		if (low == 0xFFFFFFFFFFFFFFFFL && (q < -27 || q > 55)) {
+			return UNDECIDED;
+		}
+
+		final var upperBit = (int) (high >>> 63);
+		final var shift = upperBit + 64 - format.mantissaExplicitBits() - 3;
+		var mantissa = high >>> shift;
+		var power2 = power(q) + upperBit - lz - format.minimumExponent();
+		if (power2 <= 0) {
+			// A subnormal number
+			if (-power2 + 1 >= 64) {
+				return 0;
+			}
+			mantissa >>>= -power2 + 1;
+			mantissa += mantissa & 1;
+			mantissa >>>= 1;
+			power2 = mantissa < (1L << format.mantissaExplicitBits()) ? 0 : 1;
+			return mantissa | ((long) power2 << format.mantissaExplicitBits());
+		}
+		if (Long.compareUnsigned(low, 1) <= 0
+				&& q >= format.minExponentRoundToEven()
+				&& q <= format.maxExponentRoundToEven()
+				&& (mantissa & 3) == 1) {
+			// Exactly halfway between two floating-point numbers, so it's rounded to even
+			if ((mantissa << shift) == high) {
+				mantissa &= ~1L;
+			}
+		}
+		mantissa += mantissa & 1;
+		mantissa >>>= 1;
+		if (mantissa >= (2L << format.mantissaExplicitBits())) {
+			mantissa = 1L << format.mantissaExplicitBits();
+			power2++;
+		}
+		mantissa &= ~(1L << format.mantissaExplicitBits());
+		if (power2 >= format.infinitePower()) {
+			return (long) format.infinitePower() << format.mantissaExplicitBits();
+		}
+		return mantissa | ((long) power2 << format.mantissaExplicitBits());
+	}
+
+	/**
+	 * @return <code>floor(log2(10^q)) + 63</code>
+	 */
+	private static int power(int q) {
+		return (((152170 + 65536) * q) >> 16) + 63;
+	}
+
+	private static long[] computePowersOfFive() {
+		final var powers = new long[2 * (LARGEST_POWER_OF_FIVE - SMALLEST_POWER_OF_FIVE + 1)];
+		final var two128 = BigInteger.ONE.shiftLeft(128);
+		final var five = BigInteger.valueOf(5);
+		for (int q = SMALLEST_POWER_OF_FIVE; q <= LARGEST_POWER_OF_FIVE; q++) {
+			BigInteger c;
+			if (q < 0) {
+				final var power5 = five.pow(-q);
+				final var z = power5.bitLength();
+				// 2^b / 5^-q rounded up, truncated to 128 bits
+				final var b = q >= -27 ? z + 127 : 2 * z + 2 * 64;
+				c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+				c = c.shiftRight(Math.max(0, c.bitLength() - 128));
+			} else {
+				c = five.pow(q);
+				// Normalizes the most significant bit to bit 127, truncating the rest
+				c = c.bitLength() > 128 ? c.shiftRight(c.bitLength() - 128) : c.shiftLeft(128 - c.bitLength());
+			}
+			final var index = 2 * (q - SMALLEST_POWER_OF_FIVE);
+			powers[index] = c.shiftRight(64).longValue();
+			powers[index + 1] = c.mod(two128).longValue();
+		}
+		return powers;
+	}
+}
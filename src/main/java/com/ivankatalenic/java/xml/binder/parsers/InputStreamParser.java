@@ -0,0 +1,18 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Creates a stream that decodes the base64 text of a node while it's read.
+ * The stream keeps a reference to the DOM tree, and invalid base64 text is reported when it's read.
+ */
+public class InputStreamParser implements Parser {
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		return new Base64NodeInputStream(srcNode);
+	}
+}
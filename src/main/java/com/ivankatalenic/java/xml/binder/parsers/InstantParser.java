@@ -0,0 +1,31 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.lang.annotation.Annotation;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static com.ivankatalenic.java.xml.binder.parsers.Commons.extractString;
+
+public class InstantParser implements Parser {
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		final var nodeText = extractString(srcNode);
+		try {
+			final var formatter = DateTimeFormats.customFormatter(destAnnotations, ZoneOffset.UTC);
+			if (formatter != null) {
+				return formatter.parse(nodeText, Instant::from);
+			}
+			final var parsed = IsoDateTimes.parseInstant(nodeText);
+			if (parsed != null) {
+				return parsed;
+			}
+			return Instant.parse(nodeText);
+		} catch (Exception e) {
+			throw new BinderException("failed to parse an Instant from a node text \"%s\"".formatted(nodeText), e);
+		}
+	}
+}
@@ -0,0 +1,293 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Fast paths for parsing the most common fixed layouts of the ISO-8601 dates, times, and durations.
+ * Parsing with a <code>DateTimeFormatter</code> is general, but it allocates a lot of intermediate objects.
+ * <p>
+ * Each method returns <code>null</code> when the text doesn't have one of the supported layouts,
+ * or when the value is invalid, so that the caller can fall back to the formatter.
+ * That way, the formatter decides the result (or the error) for all the uncommon inputs.
+ * <p>
+ * Supported layouts:
+ * <ul>
+ *     <li>date: <code>yyyy-MM-dd</code></li>
+ *     <li>time: <code>HH:mm</code>, <code>HH:mm:ss</code>, and <code>HH:mm:ss.f</code> with 1 to 9 fraction digits</li>
+ *     <li>date-time: the date and the time separated by <code>T</code></li>
+ *     <li>offset: <code>Z</code> and <code>±HH:mm</code></li>
+ *     <li>duration: <code>PnDTnHnMn.nS</code> with any of the components omitted, and without signs</li>
+ * </ul>
+ */
+final class IsoDateTimes {
+	private static final int DATE_LENGTH = 10;
+	private static final int OFFSET_LENGTH = 6;
+	private static final int MAX_FRACTION_DIGITS = 9;
+
+	private IsoDateTimes() {
+	}
+
+	static LocalDate parseLocalDate(String text) {
+		if (text.length() != DATE_LENGTH) {
+			return null;
+		}
+		return parseDate(text, 0);
+	}
+
+	static LocalDateTime parseLocalDateTime(String text) {
+		return parseDateTime(text, 0, text.length());
+	}
+
+	static OffsetDateTime parseOffsetDateTime(String text) {
+		final var offsetStart = findOffsetStart(text);
+		if (offsetStart < 0) {
+			return null;
+		}
+		final var offset = parseOffset(text, offsetStart);
+		final var dateTime = parseDateTime(text, 0, offsetStart);
+		if (offset == null || dateTime == null) {
+			return null;
+		}
+		return OffsetDateTime.of(dateTime, offset);
+	}
+
+	static ZonedDateTime parseZonedDateTime(String text) {
+		// Region-based zones (e.g. [Europe/Zagreb]) are left to the formatter
+		final var offsetDateTime = parseOffsetDateTime(text);
+		if (offsetDateTime == null) {
+			return null;
+		}
+		return offsetDateTime.toZonedDateTime();
+	}
+
+	static Instant parseInstant(String text) {
+		// Unlike for the other types, the seconds are required for instants
+		final var offsetStart = findOffsetStart(text);
+		if (offsetStart < DATE_LENGTH + 1 + 8) {
+			return null;
+		}
+		final var offsetDateTime = parseOffsetDateTime(text);
+		if (offsetDateTime == null) {
+			return null;
+		}
+		return offsetDateTime.toInstant();
+	}
+
+	static Duration parseDuration(String text) {
+		final var length = text.length();
+		if (length < 3 || text.charAt(0) != 'P') {
+			return null;
+		}
+		long seconds = 0;
+		int nanos = 0;
+		int pos = 1;
+		boolean inTime = false;
+		// The units must appear in this order: D, then H, M, S after the T
+		int lastUnit = 0;
+		boolean hasComponent = false;
+		while (pos < length) {
+			if (text.charAt(pos) == 'T') {
+				if (inTime) {
+					return null;
+				}
+				inTime = true;
+				pos++;
+				continue;
+			}
+			final var numStart = pos;
+			long value = 0;
+			while (pos < length && isDigit(text.charAt(pos))) {
+				// Values that might overflow are left to Duration.parse()
+				if (pos - numStart == 12) {
+					return null;
+				}
+				value = value * 10 + (text.charAt(pos) - '0');
+				pos++;
+			}
+			if (pos == numStart || pos == length) {
+				return null;
+			}
+			var unitChar = text.charAt(pos);
+			if (unitChar == '.') {
+				if (!inTime) {
+					return null;
+				}
+				final var fracStart = ++pos;
+				int fraction = 0;
+				while (pos < length && isDigit(text.charAt(pos))) {
+					if (pos - fracStart == MAX_FRACTION_DIGITS) {
+						return null;
+					}
+					fraction = fraction * 10 + (text.charAt(pos) - '0');
+					pos++;
+				}
+				if (pos == fracStart || pos == length || text.charAt(pos) != 'S') {
+					return null;
+				}
+				nanos = fraction * pow10(MAX_FRACTION_DIGITS - (pos - fracStart));
+				unitChar = 'S';
+			}
+			final int unit;
+			final long unitSeconds;
+			if (!inTime && unitChar == 'D') {
+				unit = 1;
+				unitSeconds = 86400;
+			} else if (inTime && unitChar == 'H') {
+				unit = 2;
+				unitSeconds = 3600;
+			} else if (inTime && unitChar == 'M') {
+				unit = 3;
+				unitSeconds = 60;
+			} else if (inTime && unitChar == 'S') {
+				unit = 4;
+				unitSeconds = 1;
+			} else {
+				return null;
+			}
+			if (unit <= lastUnit) {
+				return null;
+			}
+			lastUnit = unit;
+			hasComponent = true;
+			seconds += value * unitSeconds;
+			pos++;
+		}
+		// A "T" must be followed by at least one time component
+		if (!hasComponent || text.charAt(length - 1) == 'T') {
+			return null;
+		}
+		return Duration.ofSeconds(seconds, nanos);
+	}
+
+	/**
+	 * @return The start of the offset, or -1 if the text doesn't end with a supported offset.
+	 */
+	private static int findOffsetStart(String text) {
+		final var length = text.length();
+		if (length > 0 && text.charAt(length - 1) == 'Z') {
+			return length - 1;
+		}
+		final var start = length - OFFSET_LENGTH;
+		if (start > DATE_LENGTH && (text.charAt(start) == '+' || text.charAt(start) == '-')) {
+			return start;
+		}
+		return -1;
+	}
+
+	private static ZoneOffset parseOffset(String text, int start) {
+		if (text.charAt(start) == 'Z') {
+			return ZoneOffset.UTC;
+		}
+		final var hours = parseTwoDigits(text, start + 1);
+		final var minutes = parseTwoDigits(text, start + 4);
+		if (hours < 0 || minutes < 0 || text.charAt(start + 3) != ':' || hours > 18 || minutes > 59) {
+			return null;
+		}
+		final var sign = text.charAt(start) == '-' ? -1 : 1;
+		try {
+			return ZoneOffset.ofTotalSeconds(sign * (hours * 3600 + minutes * 60));
+		} catch (DateTimeException _) {
+			return null;
+		}
+	}
+
+	private static LocalDateTime parseDateTime(String text, int start, int end) {
+		if (end - start < DATE_LENGTH + 1 || text.charAt(start + DATE_LENGTH) != 'T') {
+			return null;
+		}
+		final var date = parseDate(text, start);
+		if (date == null) {
+			return null;
+		}
+		final var time = parseTime(text, start + DATE_LENGTH + 1, end);
+		if (time == null) {
+			return null;
+		}
+		return LocalDateTime.of(date, time);
+	}
+
+	private static LocalDate parseDate(String text, int start) {
+		final var yearHigh = parseTwoDigits(text, start);
+		final var yearLow = parseTwoDigits(text, start + 2);
+		final var month = parseTwoDigits(text, start + 5);
+		final var day = parseTwoDigits(text, start + 8);
+		if (yearHigh < 0 || yearLow < 0 || month < 0 || day < 0 || text.charAt(start + 4) != '-' || text.charAt(start + 7) != '-') {
+			return null;
+		}
+		try {
+			return LocalDate.of(yearHigh * 100 + yearLow, month, day);
+		} catch (DateTimeException _) {
+			return null;
+		}
+	}
+
+	private static LocalTime parseTime(String text, int start, int end) {
+		final var length = end - start;
+		if (length != 5 && length != 8 && (length < 10 || length > 9 + MAX_FRACTION_DIGITS)) {
+			return null;
+		}
+		final var hour = parseTwoDigits(text, start);
+		final var minute = parseTwoDigits(text, start + 3);
+		if (hour < 0 || minute < 0 || text.charAt(start + 2) != ':') {
+			return null;
+		}
+		int second = 0;
+		int nano = 0;
+		if (length >= 8) {
+			second = parseTwoDigits(text, start + 6);
+			if (second < 0 || text.charAt(start + 5) != ':') {
+				return null;
+			}
+		}
+		if (length >= 10) {
+			if (text.charAt(start + 8) != '.') {
+				return null;
+			}
+			for (int i = start + 9; i < end; i++) {
+				final var c = text.charAt(i);
+				if (!isDigit(c)) {
+					return null;
+				}
+				nano = nano * 10 + (c - '0');
+			}
+			nano *= pow10(MAX_FRACTION_DIGITS - (length - 9));
+		}
+		try {
+			return LocalTime.of(hour, minute, second, nano);
+		} catch (DateTimeException _) {
+			return null;
+		}
+	}
+
+	/**
+	 * @return The value of the two digits, or -1 if they aren't digits.
+	 */
+	private static int parseTwoDigits(String text, int start) {
+		final var high = text.charAt(start);
+		final var low = text.charAt(start + 1);
+		if (!isDigit(high) || !isDigit(low)) {
+			return -1;
+		}
+		return (high - '0') * 10 + (low - '0');
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int pow10(int exp) {
+		int result = 1;
+		for (int i = 0; i < exp; i++) {
+			result *= 10;
+		}
+		return result;
+	}
+}
@@ -0,0 +1,30 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.lang.annotation.Annotation;
+import java.time.LocalDateTime;
+
+import static com.ivankatalenic.java.xml.binder.parsers.Commons.extractString;
+
+public class LocalDateTimeParser implements Parser {
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		final var nodeText = extractString(srcNode);
+		try {
+			final var formatter = DateTimeFormats.customFormatter(destAnnotations);
+			if (formatter != null) {
+				return LocalDateTime.parse(nodeText, formatter);
+			}
+			final var parsed = IsoDateTimes.parseLocalDateTime(nodeText);
+			if (parsed != null) {
+				return parsed;
+			}
+			return LocalDateTime.parse(nodeText);
+		} catch (Exception e) {
+			throw new BinderException("failed to parse a LocalDateTime from a node text \"%s\"".formatted(nodeText), e);
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import org.w3c.dom.Node;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads the text of a node chunk by chunk, straight from the strings held by the DOM tree.
+ */
+final class NodeTextReader extends Reader {
+	private final TextChunks chunks;
+	private String chunk = "";
+	private int chunkPos;
+	private boolean closed;
+
+	NodeTextReader(Node node) {
+		chunks = new TextChunks(node);
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fillChunk()) {
+			return -1;
+		}
+		return chunk.charAt(chunkPos++);
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		int total = 0;
+		while (total < len && fillChunk()) {
+			final var count = Math.min(len - total, chunk.length() - chunkPos);
+			chunk.getChars(chunkPos, chunkPos + count, cbuf, off + total);
+			chunkPos += count;
+			total += count;
+		}
+		return total == 0 ? -1 : total;
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	/**
+	 * @return Whether there are characters left to read in the current chunk.
+	 */
+	private boolean fillChunk() throws IOException {
+		if (closed) {
+			throw new IOException("the reader is closed");
+		}
+		while (chunk != null && chunkPos == chunk.length()) {
+			chunk = chunks.next();
+			chunkPos = 0;
+		}
+		return chunk != null;
+	}
+}
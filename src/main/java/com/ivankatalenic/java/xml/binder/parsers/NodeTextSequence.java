@@ -0,0 +1,100 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import org.w3c.dom.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A character sequence over the text chunks of a node, for the text split into multiple DOM nodes.
+ * The characters are only copied if the sequence is converted into a string.
+ */
+final class NodeTextSequence implements CharSequence {
+	private final String[] chunks;
+	/**
+	 * The index of each chunk's first character within the sequence.
+	 */
+	private final int[] starts;
+	private final int length;
+
+	private NodeTextSequence(String[] chunks) {
+		this.chunks = chunks;
+		starts = new int[chunks.length];
+		int length = 0;
+		for (int i = 0; i < chunks.length; i++) {
+			starts[i] = length;
+			length += chunks[i].length();
+		}
+		this.length = length;
+	}
+
+	/**
+	 * @return The text of the node, as the DOM tree's own string if the text is held by a single node.
+	 */
+	static CharSequence of(Node node) {
+		final var textChunks = new TextChunks(node);
+		final var first = textChunks.next();
+		if (first == null) {
+			return "";
+		}
+		var next = textChunks.next();
+		if (next == null) {
+			return first;
+		}
+		final var chunks = new ArrayList<String>();
+		chunks.add(first);
+		while (next != null) {
+			chunks.add(next);
+			next = textChunks.next();
+		}
+		return new NodeTextSequence(chunks.toArray(String[]::new));
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= length) {
+			throw new IndexOutOfBoundsException(index);
+		}
+		final var chunk = chunkOf(index);
+		return chunks[chunk].charAt(index - starts[chunk]);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		if (start < 0 || end > length || start > end) {
+			throw new IndexOutOfBoundsException("start %d, end %d, length %d".formatted(start, end, length));
+		}
+		if (start == end) {
+			return "";
+		}
+		final var firstChunk = chunkOf(start);
+		final var lastChunk = chunkOf(end - 1);
+		if (firstChunk == lastChunk) {
+			return chunks[firstChunk].substring(start - starts[firstChunk], end - starts[firstChunk]);
+		}
+		final var subChunks = Arrays.copyOfRange(chunks, firstChunk, lastChunk + 1);
+		subChunks[0] = subChunks[0].substring(start - starts[firstChunk]);
+		subChunks[subChunks.length - 1] = subChunks[subChunks.length - 1].substring(0, end - starts[lastChunk]);
+		return new NodeTextSequence(subChunks);
+	}
+
+	@Override
+	public String toString() {
+		final var builder = new StringBuilder(length);
+		for (final var chunk : chunks) {
+			builder.append(chunk);
+		}
+		return builder.toString();
+	}
+
+	private int chunkOf(int index) {
+		final var found = Arrays.binarySearch(starts, index);
+		// The chunks aren't empty, so a start index is found only for the chunk it starts
+		return found >= 0 ? found : -found - 2;
+	}
+}
@@ -0,0 +1,18 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.Parser;
+import org.w3c.dom.Node;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Creates a reader of the untrimmed text of a node, which reads straight from the DOM tree.
+ * The reader keeps a reference to the DOM tree.
+ */
+public class ReaderParser implements Parser {
+	@Override
+	public Object parseFromNode(Node srcNode, Annotation[] destAnnotations) throws BinderException {
+		return new NodeTextReader(srcNode);
+	}
+}
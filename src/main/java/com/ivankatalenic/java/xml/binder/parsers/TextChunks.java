@@ -0,0 +1,57 @@
+package com.ivankatalenic.java.xml.binder.parsers;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+
+/**
+ * Iterates over the text of a node as the strings already held by the DOM tree,
+ * without concatenating them the way <code>Node.getTextContent()</code> does.
+ * The text of an element is the data of its descendant text and CDATA nodes in the document order,
+ * and the text of an attribute is its value.
+ */
+final class TextChunks {
+	private final Node root;
+	private Node current;
+	private String attributeValue;
+
+	TextChunks(Node root) {
+		this.root = root;
+		if (root instanceof Attr attr) {
+			attributeValue = attr.getValue();
+		} else {
+			current = root;
+		}
+	}
+
+	/**
+	 * @return The next non-empty chunk of the text, or <code>null</code> if there's no more text.
+	 */
+	String next() {
+		if (attributeValue != null) {
+			final var value = attributeValue;
+			attributeValue = null;
+			return value.isEmpty() ? null : value;
+		}
+		while (current != null) {
+			current = nextInDocumentOrder(current);
+			if (current instanceof Text text && text.getLength() > 0) {
+				return text.getData();
+			}
+		}
+		return null;
+	}
+
+	private Node nextInDocumentOrder(Node node) {
+		if (node.getFirstChild() != null) {
+			return node.getFirstChild();
+		}
+		while (node != root) {
+			if (node.getNextSibling() != null) {
+				return node.getNextSibling();
+			}
+			node = node.getParentNode();
+		}
+		return null;
+	}
+}
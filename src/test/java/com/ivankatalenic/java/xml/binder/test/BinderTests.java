@@ -2,21 +2,42 @@ package com.ivankatalenic.java.xml.binder.test;
 
 import com.ivankatalenic.java.xml.binder.Binder;
 import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.XMLFragment;
 import com.ivankatalenic.java.xml.binder.annotations.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.w3c.dom.Element;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.foreign.Arena;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -288,4 +309,1194 @@ public class BinderTests {
 		assertEquals("Hello", doc.root.str1);
 		assertEquals("World", doc.root.str2);
 	}
+
+	public static class document13 {
+		public static class A {
+			public String str;
+			public int[] nums;
+		}
+		public A root;
+	}
+	@Test
+	public void bindIntoExistingInstance() throws Exception {
+		final var firstDoc = """
+						<root>
+							<str>Hello</str>
+							<nums><int>1</int><int>2</int></nums>
+						</root>
+						""";
+		final var secondDoc = """
+						<root>
+							<str>World</str>
+							<nums><int>3</int><int>4</int></nums>
+						</root>
+						""";
+
+		final var doc = binder.BindInto(domParser.parse(new InputSource(new StringReader(firstDoc))), new document13());
+		final var nested = doc.root;
+		final var nums = doc.root.nums;
+		final var rebound = binder.BindInto(domParser.parse(new InputSource(new StringReader(secondDoc))), doc);
+
+		assertSame(doc, rebound);
+		assertSame(nested, doc.root);
+		assertSame(nums, doc.root.nums);
+		assertEquals("World", doc.root.str);
+		assertEquals(3, doc.root.nums[0]);
+		assertEquals(4, doc.root.nums[1]);
+	}
+
+	@Test
+	public void bindIntoRecordFails() throws Exception {
+		final var dom = domParser.parse(new InputSource(new StringReader("<statement/>")));
+
+		assertThrows(BinderException.class, () -> binder.BindInto(dom, new XmlDto(null)));
+	}
+
+	@Test
+	public void bindFromStreams() throws Exception {
+		final var xmlDoc = """
+				<?xml version="1.0" encoding="utf-8"?>
+				<statement>
+					<account owner="Google" balance="10000.0"/>
+				</statement>
+				""";
+
+		final var fromReader = binder.Bind(new StringReader(xmlDoc), XmlDto.class);
+		final var fromBytes = binder.Bind(xmlDoc.getBytes(StandardCharsets.UTF_8), XmlDto.class);
+		final var fromStream = binder.Bind(new ByteArrayInputStream(xmlDoc.getBytes(StandardCharsets.UTF_8)), XmlDto.class);
+
+		assertEquals(fromReader, fromBytes);
+		assertEquals(fromReader, fromStream);
+		assertEquals("Google", fromStream.statement().account().owner());
+	}
+
+	@Test
+	public void bindFromStreamDoesNotResolveExternalEntities() throws Exception {
+		final var xmlDoc = """
+				<?xml version="1.0" encoding="utf-8"?>
+				<!DOCTYPE root [<!ENTITY ext SYSTEM "file:///etc/hostname">]>
+				<root>&ext;</root>
+				""";
+
+		final var doc = binder.Bind(new StringReader(xmlDoc), document1.class);
+
+		assertEquals("", doc.root);
+	}
+
+	@Test
+	public void bindFromMalformedStream() {
+		assertThrows(BinderException.class, () -> binder.Bind(new StringReader("<root>"), document1.class));
+	}
+
+	public record Tick(@XMLFromAttribute long ts, @XMLFromAttribute double px, String venue) {};
+	@Test
+	public void gzipRecordsPipeline() throws Exception {
+		final var xmlDoc = new StringBuilder("<ticks><header>skipped</header>");
+		for (int i = 0; i < 5000; i++) {
+			xmlDoc.append("<tick ts=\"%d\" px=\"%d.5\"><venue>V%d</venue></tick>".formatted(i, i, i));
+		}
+		xmlDoc.append("</ticks>");
+		final var compressed = new ByteArrayOutputStream();
+		try (final var gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(xmlDoc.toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		final var ticks = new ArrayList<Tick>();
+		binder.BindGzipRecords(new ByteArrayInputStream(compressed.toByteArray()), Tick.class, ticks::add);
+
+		assertEquals(5000, ticks.size());
+		for (int i = 0; i < ticks.size(); i++) {
+			assertEquals(new Tick(i, i + 0.5, "V" + i), ticks.get(i));
+		}
+	}
+
+	@Test
+	public void gzipRecordsPipelineCorruptedInput() {
+		final var notCompressed = "<ticks><tick ts=\"1\" px=\"1.0\"><venue>V</venue></tick></ticks>".getBytes(StandardCharsets.UTF_8);
+
+		assertThrows(BinderException.class, () -> binder.BindGzipRecords(new ByteArrayInputStream(notCompressed), Tick.class, _ -> {}));
+	}
+
+	@Test
+	public void gzipRecordsPipelineClosesInput() throws Exception {
+		final var compressed = new ByteArrayOutputStream();
+		final var gzip = new GZIPOutputStream(compressed, true);
+		final var xmlDoc = new StringBuilder("<ticks>");
+		// More than a chunk of the inflation stage, so that the records reach the sink before the input blocks
+		for (int i = 0; i < 5000; i++) {
+			xmlDoc.append("<tick ts=\"%d\" px=\"1.0\"><venue>V</venue></tick>".formatted(i));
+		}
+		gzip.write(xmlDoc.toString().getBytes(StandardCharsets.UTF_8));
+		gzip.flush();
+		final var prefix = compressed.toByteArray();
+		final var closed = new CountDownLatch(1);
+		// Serves the records, and then blocks like a read that can't be interrupted, until the stream is closed
+		final var input = new InputStream() {
+			private int pos;
+
+			@Override
+			public int read() throws IOException {
+				final var b = new byte[1];
+				return read(b, 0, 1) < 0 ? -1 : b[0] & 0xFF;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				if (pos < prefix.length) {
+					final var n = Math.min(len, prefix.length - pos);
+					System.arraycopy(prefix, pos, b, off, n);
+					pos += n;
+					return n;
+				}
+				while (true) {
+					try {
+						closed.await();
+						return -1;
+					} catch (InterruptedException _) {
+						// Ignored, like a blocked socket read does
+					}
+				}
+			}
+
+			@Override
+			public void close() {
+				closed.countDown();
+			}
+		};
+
+		assertThrows(IllegalStateException.class, () -> binder.BindGzipRecords(input, Tick.class, _ -> {
+			throw new IllegalStateException("stop");
+		}));
+		assertEquals(0, closed.getCount());
+	}
+
+	@Test
+	public void parallelRecords() throws Exception {
+		final var xmlDoc = new StringBuilder("""
+				<?xml version="1.0" encoding="utf-8"?>
+				<!DOCTYPE ticks [<!ENTITY venue "XNYS">]>
+				<ticks>
+					<!-- <tick ts="-1" px="0"> inside a comment isn't a record -->
+					<header><tick ts="-1" px="0"><venue>nested</venue></tick></header>
+				""");
+		for (int i = 0; i < 15_000; i++) {
+			xmlDoc.append("<tick ts=\"%d\" px=\"%d.5\"><venue><![CDATA[<tick>]]>&venue;</venue></tick>\n".formatted(i, i));
+		}
+		xmlDoc.append("</ticks>");
+		final var xmlBytes = xmlDoc.toString().getBytes(StandardCharsets.UTF_8);
+
+		final var fromBytes = binder.BindParallel(xmlBytes, Tick.class, 4);
+		final var xmlFile = Files.createTempFile("ticks", ".xml");
+		try {
+			Files.write(xmlFile, xmlBytes);
+			final var fromFile = binder.BindParallel(xmlFile, Tick.class, 4);
+			assertArrayEquals(fromBytes, fromFile);
+		} finally {
+			Files.delete(xmlFile);
+		}
+
+		assertEquals(15_000, fromBytes.length);
+		for (int i = 0; i < fromBytes.length; i++) {
+			assertEquals(new Tick(i, i + 0.5, "<tick>XNYS"), fromBytes[i]);
+		}
+	}
+
+	public record Times(
+			Instant instant,
+			LocalDate date,
+			LocalDateTime dateTime,
+			OffsetDateTime offsetDateTime,
+			ZonedDateTime zonedDateTime,
+			Duration duration
+	) {};
+	public static class document14 {
+		public Times times;
+	}
+	@Test
+	public void javaTimeIsoFormats() throws Exception {
+		final var xmlDoc = """
+				<times>
+					<instant>2024-03-01T10:15:30.123Z</instant>
+					<date>2024-02-29</date>
+					<dateTime>2024-03-01T10:15</dateTime>
+					<offsetDateTime>2024-03-01T10:15:30-05:00</offsetDateTime>
+					<zonedDateTime>2024-03-01T10:15:30+01:00[Europe/Zagreb]</zonedDateTime>
+					<duration>P1DT2H3M4.5S</duration>
+				</times>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		final var dto = binder.Bind(dom, document14.class);
+
+		assertEquals(Instant.parse("2024-03-01T10:15:30.123Z"), dto.times.instant());
+		assertEquals(LocalDate.of(2024, 2, 29), dto.times.date());
+		assertEquals(LocalDateTime.of(2024, 3, 1, 10, 15), dto.times.dateTime());
+		assertEquals(OffsetDateTime.parse("2024-03-01T10:15:30-05:00"), dto.times.offsetDateTime());
+		assertEquals(ZonedDateTime.parse("2024-03-01T10:15:30+01:00[Europe/Zagreb]"), dto.times.zonedDateTime());
+		assertEquals(Duration.parse("P1DT2H3M4.5S"), dto.times.duration());
+	}
+
+	@Test
+	public void javaTimeInvalidDate() throws Exception {
+		final var xmlDoc = """
+				<times>
+					<instant>2024-03-01T10:15:30Z</instant>
+					<date>2023-02-29</date>
+					<dateTime>2024-03-01T10:15</dateTime>
+					<offsetDateTime>2024-03-01T10:15:30Z</offsetDateTime>
+					<zonedDateTime>2024-03-01T10:15:30Z</zonedDateTime>
+					<duration>PT1S</duration>
+				</times>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		assertThrows(BinderException.class, () -> binder.Bind(dom, document14.class));
+	}
+
+	public static class document15 {
+		public static class A {
+			@XMLDateTimeFormat("dd.MM.yyyy.")
+			public LocalDate date;
+			@XMLDateTimeFormat("dd.MM.yyyy. HH:mm")
+			public Instant instant;
+		}
+		public A root;
+	}
+	@Test
+	public void javaTimeCustomFormat() throws Exception {
+		final var xmlDoc = """
+				<root>
+					<date>29.02.2024.</date>
+					<instant>01.03.2024. 10:15</instant>
+				</root>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		final var doc = binder.Bind(dom, document15.class);
+
+		assertEquals(LocalDate.of(2024, 2, 29), doc.root.date);
+		assertEquals(Instant.parse("2024-03-01T10:15:00Z"), doc.root.instant);
+	}
+
+	public static class document16 {
+		@XMLNamespace("http://schemas.xmlsoap.org/soap/envelope/")
+		public static class Envelope {
+			@XMLName("Body")
+			public Body body;
+		}
+		@XMLNamespace("http://schemas.xmlsoap.org/soap/envelope/")
+		public static class Body {
+			@XMLName(value = "quotes", namespace = "urn:quotes")
+			public Quote[] quotes;
+		}
+		public record Quote(
+				@XMLFromAttribute String symbol,
+				@XMLFromAttribute @XMLName(value = "currency", namespace = "urn:fx") String currency,
+				@XMLName(value = "price", namespace = "urn:quotes") double price,
+				@XMLName(value = "price", namespace = "urn:legacy") @XMLOptional Double legacyPrice
+		) {}
+		@XMLName(value = "Envelope", namespace = "http://schemas.xmlsoap.org/soap/envelope/")
+		public Envelope envelope;
+	}
+	@Test
+	public void namespaces() throws Exception {
+		final var xmlDoc = """
+				<soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/" xmlns:fx="urn:fx">
+					<soap:Header/>
+					<soap:Body>
+						<quotes xmlns="urn:quotes">
+							<quote symbol="ACME" fx:currency="EUR">
+								<old:price xmlns:old="urn:legacy">1.25</old:price>
+								<price>12.5</price>
+							</quote>
+							<q:quote xmlns:q="urn:quotes" symbol="INIT" fx:currency="USD"><q:price>7</q:price></q:quote>
+							<quote xmlns="urn:other" symbol="SKIP" fx:currency="USD"><price>0</price></quote>
+						</quotes>
+					</soap:Body>
+				</soap:Envelope>
+				""";
+
+		final var doc = binder.Bind(new StringReader(xmlDoc), document16.class);
+
+		final var quotes = doc.envelope.body.quotes;
+		assertEquals(2, quotes.length);
+		assertEquals(new document16.Quote("ACME", "EUR", 12.5, 1.25), quotes[0]);
+		assertEquals(new document16.Quote("INIT", "USD", 7, null), quotes[1]);
+	}
+
+	@Test
+	public void namespacesWrongNamespace() {
+		final var xmlDoc = """
+				<soap:Envelope xmlns:soap="urn:not-soap">
+					<soap:Body/>
+				</soap:Envelope>
+				""";
+
+		assertThrows(BinderException.class, () -> binder.Bind(new StringReader(xmlDoc), document16.class));
+	}
+
+	@Test
+	public void namespacesRequireNamespaceAwareDom() throws Exception {
+		final var xmlDoc = """
+				<soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+					<soap:Body/>
+				</soap:Envelope>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		assertThrows(BinderException.class, () -> binder.Bind(dom, document16.class));
+	}
+
+	public static class document17 {
+		public record Order(
+				@XMLPath("header/customer/@id") long customerId,
+				@XMLPath("header/customer/name") String customerName,
+				@XMLPath("lines/line[@type='discount']/amount") double discount,
+				@XMLPath("header/missing/@id") @XMLOptional Long missing
+		) {}
+		public Order order;
+	}
+	@Test
+	public void paths() throws Exception {
+		final var xmlDoc = """
+				<order>
+					<header>
+						<customer id="42"><name>Ann</name></customer>
+					</header>
+					<lines>
+						<line type="item"><amount>10.5</amount></line>
+						<line type="discount"><amount>-1.5</amount></line>
+					</lines>
+				</order>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		final var doc = binder.Bind(dom, document17.class);
+
+		assertEquals(new document17.Order(42, "Ann", -1.5, null), doc.order);
+	}
+
+	public static class document18 {
+		public record Invalid(@XMLPath("a/b") @XMLName("c") String value) {}
+		public Invalid invalid;
+	}
+	@Test
+	public void pathsWithName() throws Exception {
+		final var dom = domParser.parse(new InputSource(new StringReader("<invalid><a><b>x</b></a></invalid>")));
+
+		assertThrows(BinderException.class, () -> binder.Bind(dom, document18.class));
+	}
+
+	public static class document19 {
+		public sealed interface Payload permits Trade, Quote, Control {}
+		public record Trade(@XMLFromAttribute long id, double px) implements Payload {}
+		@XMLTypeName("q")
+		public record Quote(double bid, double ask) implements Payload {}
+		public sealed interface Control extends Payload permits Heartbeat {}
+		public record Heartbeat(@XMLFromAttribute long seq) implements Control {}
+
+		@XMLDiscriminator("kind")
+		public static abstract sealed class Header permits BasicHeader, RoutedHeader {
+			public String sender;
+		}
+		@XMLTypeName("basic")
+		public static final class BasicHeader extends Header {}
+		@XMLTypeName("routed")
+		public static final class RoutedHeader extends Header {
+			public String route;
+		}
+
+		public static class Envelope {
+			public Header header;
+			public Payload payload;
+			public Payload[] batch;
+		}
+		public Envelope envelope;
+	}
+	@Test
+	public void sealedTypes() throws Exception {
+		final var xmlDoc = """
+				<envelope>
+					<header kind="routed"><sender>A</sender><route>B</route></header>
+					<q><bid>1.5</bid><ask>1.75</ask></q>
+					<batch>
+						<trade id="1"><px>10</px></trade>
+						<ignored/>
+						<heartbeat seq="7"/>
+						<q><bid>2</bid><ask>3</ask></q>
+					</batch>
+				</envelope>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		final var doc = binder.Bind(dom, document19.class);
+
+		final var header = assertInstanceOf(document19.RoutedHeader.class, doc.envelope.header);
+		assertEquals("A", header.sender);
+		assertEquals("B", header.route);
+		assertEquals(new document19.Quote(1.5, 1.75), doc.envelope.payload);
+		assertEquals(3, doc.envelope.batch.length);
+		assertEquals(new document19.Trade(1, 10), doc.envelope.batch[0]);
+		assertEquals(new document19.Heartbeat(7), doc.envelope.batch[1]);
+		assertEquals(new document19.Quote(2, 3), doc.envelope.batch[2]);
+	}
+
+	@Test
+	public void sealedTypesUnknownSubtype() throws Exception {
+		final var xmlDoc = """
+				<envelope>
+					<header kind="unknown"><sender>A</sender></header>
+					<trade id="1"><px>10</px></trade>
+					<batch/>
+				</envelope>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		assertThrows(BinderException.class, () -> binder.Bind(dom, document19.class));
+	}
+
+	public static class document20 {
+		public static class Attachment {
+			public byte[] data;
+			public InputStream stream;
+			public Reader text;
+			public CharSequence body;
+			@XMLFromAttribute
+			public byte[] checksum;
+		}
+		public Attachment attachment;
+	}
+	@Test
+	public void largeTextContent() throws Exception {
+		final var payload = new byte[300_000];
+		new Random(42).nextBytes(payload);
+		final var base64 = Base64.getMimeEncoder().encodeToString(payload);
+		final var text = "line\n".repeat(50_000);
+		final var xmlDoc = """
+				<attachment checksum="AQID">
+					<data>%s</data>
+					<stream>
+						%s
+					</stream>
+					<text>%s</text>
+					<body>start<![CDATA[<raw> & ]]>end</body>
+				</attachment>
+				""".formatted(base64, base64, text);
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		final var doc = binder.Bind(dom, document20.class);
+
+		assertArrayEquals(payload, doc.attachment.data);
+		assertArrayEquals(payload, doc.attachment.stream.readAllBytes());
+		final var readText = new StringWriter();
+		doc.attachment.text.transferTo(readText);
+		assertEquals(text, readText.toString());
+		assertEquals("start<raw> & end", doc.attachment.body.toString());
+		assertEquals("<raw>", doc.attachment.body.subSequence(5, 10).toString());
+		assertEquals('&', doc.attachment.body.charAt(11));
+		assertArrayEquals(new byte[]{1, 2, 3}, doc.attachment.checksum);
+	}
+
+	@Test
+	public void largeTextContentInGzipRecords() throws Exception {
+		final var payload = new byte[1 << 20];
+		new Random(42).nextBytes(payload);
+		final var xmlDoc = "<attachments><attachment checksum=\"\"><data>%s</data><stream/><text/><body/></attachment></attachments>"
+				.formatted(Base64.getEncoder().encodeToString(payload));
+		final var compressed = new ByteArrayOutputStream();
+		try (final var gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(xmlDoc.getBytes(StandardCharsets.UTF_8));
+		}
+
+		final var attachments = new ArrayList<document20.Attachment>();
+		binder.BindGzipRecords(new ByteArrayInputStream(compressed.toByteArray()), document20.Attachment.class, attachments::add);
+
+		assertEquals(1, attachments.size());
+		assertArrayEquals(payload, attachments.getFirst().data);
+		assertEquals(0, attachments.getFirst().checksum.length);
+	}
+
+	@Test
+	public void invalidBase64() throws Exception {
+		for (final var data : new String[]{"AQI*", "AQIDB", "AQ==AQ"}) {
+			final var xmlDoc = "<attachment checksum=\"\"><data>%s</data><stream/><text/><body/></attachment>".formatted(data);
+			final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+			assertThrows(BinderException.class, () -> binder.Bind(dom, document20.class), data);
+		}
+	}
+
+	public static class document21 {
+		@XMLDeduplicate
+		public record Country(@XMLFromAttribute String code, @XMLFromAttribute String currency) {}
+		@XMLDeduplicate(scope = XMLDeduplicate.Scope.BINDER, maxSize = 2)
+		public record Venue(@XMLFromAttribute String mic) {}
+		public record Instrument(@XMLFromAttribute String isin, Country country, Venue venue) {}
+		@XMLArrayElementName("instrument")
+		public Instrument[] instruments;
+	}
+	@Test
+	public void deduplicatedRecords() throws Exception {
+		final var xmlDoc = """
+				<instruments>
+					<instrument isin="A"><country code="HR" currency="EUR"/><venue mic="XZAG"/></instrument>
+					<instrument isin="B"><country code="HR" currency="EUR"/><venue mic="XZAG"/></instrument>
+					<instrument isin="C"><country code="US" currency="USD"/><venue mic="XNYS"/></instrument>
+					<instrument isin="D"><country code="US" currency="USD"/><venue mic="XNAS"/></instrument>
+					<instrument isin="E"><country code="HR" currency="EUR"/><venue mic="XNAS"/></instrument>
+				</instruments>
+				""";
+
+		final var first = binder.Bind(new StringReader(xmlDoc), document21.class).instruments;
+		final var second = binder.Bind(new StringReader(xmlDoc), document21.class).instruments;
+
+		assertSame(first[0].country(), first[1].country());
+		assertSame(first[0].country(), first[4].country());
+		assertSame(first[2].country(), first[3].country());
+		assertNotSame(first[0].country(), second[0].country());
+		assertEquals(first[0].country(), second[0].country());
+
+		assertSame(first[0].venue(), first[1].venue());
+		assertSame(first[0].venue(), second[0].venue());
+		// Only the first two distinct venues are remembered
+		assertNotSame(first[3].venue(), first[4].venue());
+		assertEquals(first[3].venue(), first[4].venue());
+	}
+
+	public static class document22 {
+		public record Extension(@XMLFromAttribute String key, String value) {}
+		public record Message(
+				String id,
+				XMLFragment extensions,
+				@XMLName("extensions") @XMLRaw String extensionsMarkup,
+				@XMLFromAttribute XMLFragment version
+		) {}
+		public Message message;
+	}
+	@Test
+	public void rawFragments() throws Exception {
+		final var xmlDoc = """
+				<message version="2" xmlns:x="urn:ext">
+					<id>M1</id>
+					<extensions><extension key="a"><value>1</value></extension><x:extension key="b"><value>2</value></x:extension></extensions>
+				</message>
+				""";
+
+		final var doc = binder.Bind(new StringReader(xmlDoc), document22.class);
+
+		final var extensions = doc.message.extensions();
+		final var expectedMarkup = "<extensions><extension key=\"a\"><value>1</value></extension><x:extension xmlns:x=\"urn:ext\" key=\"b\"><value>2</value></x:extension></extensions>";
+		assertEquals("M1", doc.message.id());
+		assertEquals("extensions", extensions.node().getNodeName());
+		assertEquals(expectedMarkup, extensions.asString());
+		assertEquals(expectedMarkup, doc.message.extensionsMarkup());
+		assertArrayEquals(expectedMarkup.getBytes(StandardCharsets.UTF_8), extensions.asBytes());
+		assertEquals("2", doc.message.version().asString());
+
+		final var bound = extensions.bindTo(document22.Extension[].class);
+		assertEquals(2, bound.length);
+		assertEquals(new document22.Extension("b", "2"), bound[1]);
+	}
+
+	public static class document23 {
+		public record Person(@XMLFromAttribute @XMLId String id, String name) {}
+		public static class Team {
+			@XMLFromAttribute
+			@XMLId
+			public String id;
+			@XMLFromAttribute
+			@XMLIdRef
+			public Person lead;
+			@XMLFromAttribute
+			@XMLIdRef
+			@XMLOptional
+			public Team parent;
+			@XMLIdRef
+			@XMLArrayElementName("member")
+			public Person[] members;
+		}
+		public record Assignment(@XMLFromAttribute @XMLIdRef Person person, @XMLFromAttribute String role) {}
+		public static class Graph {
+			@XMLArrayElementName("team")
+			public Team[] teams;
+			@XMLArrayElementName("person")
+			public Person[] people;
+			@XMLArrayElementName("assignment")
+			public Assignment[] assignments;
+		}
+		public Graph graph;
+	}
+	@Test
+	public void idReferences() throws Exception {
+		final var xmlDoc = """
+				<graph>
+					<teams>
+						<team id="t1" lead="p1"><members><member>p1</member><member>p2</member></members></team>
+						<team id="t2" lead="p2" parent="t1"><members/></team>
+					</teams>
+					<people>
+						<person id="p1"><name>Ann</name></person>
+						<person id="p2"><name>Bob</name></person>
+					</people>
+					<assignments>
+						<assignment person="p2" role="dev"/>
+					</assignments>
+				</graph>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		final var graph = binder.Bind(dom, document23.class).graph;
+
+		final var ann = graph.people[0];
+		final var bob = graph.people[1];
+		assertSame(ann, graph.teams[0].lead);
+		assertSame(bob, graph.teams[1].lead);
+		assertSame(ann, graph.teams[0].members[0]);
+		assertSame(bob, graph.teams[0].members[1]);
+		assertSame(graph.teams[0], graph.teams[1].parent);
+		assertNull(graph.teams[0].parent);
+		assertSame(bob, graph.assignments[0].person());
+	}
+
+	@Test
+	public void idReferencesInvalid() throws Exception {
+		final var missing = """
+				<graph>
+					<teams><team id="t1" lead="p9"><members/></team></teams>
+					<people/>
+					<assignments/>
+				</graph>
+				""";
+		final var wrongType = """
+				<graph>
+					<teams><team id="t1" lead="t1"><members/></team></teams>
+					<people/>
+					<assignments/>
+				</graph>
+				""";
+		final var duplicate = """
+				<graph>
+					<teams/>
+					<people><person id="p1"><name>Ann</name></person><person id="p1"><name>Bob</name></person></people>
+					<assignments/>
+				</graph>
+				""";
+		for (final var xmlDoc : new String[]{missing, wrongType, duplicate}) {
+			final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+			assertThrows(BinderException.class, () -> binder.Bind(dom, document23.class), xmlDoc);
+		}
+	}
+
+	public static class document24 {
+		public static class Graph {
+			@XMLArrayElementName("assignment")
+			public document23.Assignment[] assignments;
+			@XMLArrayElementName("person")
+			public document23.Person[] people;
+		}
+		public Graph graph;
+	}
+	@Test
+	public void idReferencesForwardFromRecord() throws Exception {
+		final var xmlDoc = """
+				<graph>
+					<people><person id="p1"><name>Ann</name></person></people>
+					<assignments><assignment person="p1" role="dev"/></assignments>
+				</graph>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		// The assignments are bound before the people, since the fields are bound in the order of their declarations
+		assertThrows(BinderException.class, () -> binder.Bind(dom, document24.class));
+	}
+
+	public static class document25 {
+		public record Endpoint(@XMLFromAttribute String name, String url, int timeout) {}
+		public record Limits(int connections, Duration idle) {}
+		public record Config(Limits limits, @XMLArrayElementName("endpoint") Endpoint[] endpoints) {}
+		public Config config;
+	}
+	@Test
+	public void incrementalRebind() throws Exception {
+		final var xmlDoc = """
+				<config>
+					<limits><connections>10</connections><idle>PT30S</idle></limits>
+					<endpoints>
+						<endpoint name="a"><url>http://a</url><timeout>5</timeout></endpoint>
+						<endpoint name="b"><url>http://b</url><timeout>7</timeout></endpoint>
+					</endpoints>
+				</config>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		try (final var binding = binder.BindIncrementally(dom, document25.class)) {
+			final var first = binding.result().config;
+			assertSame(binding.result(), binding.rebind());
+
+			final var endpointB = (Element) dom.getElementsByTagName("endpoint").item(1);
+			endpointB.getElementsByTagName("timeout").item(0).getFirstChild().setNodeValue("9");
+			final var second = binding.rebind().config;
+
+			assertNotSame(first, second);
+			assertSame(first.limits(), second.limits());
+			assertSame(first.endpoints()[0], second.endpoints()[0]);
+			assertEquals(new document25.Endpoint("b", "http://b", 9), second.endpoints()[1]);
+			assertEquals(7, first.endpoints()[1].timeout());
+
+			endpointB.setAttribute("name", "c");
+			final var added = (Element) endpointB.cloneNode(true);
+			added.setAttribute("name", "d");
+			endpointB.getParentNode().appendChild(added);
+			final var third = binding.rebind().config;
+
+			assertSame(second.limits(), third.limits());
+			assertSame(second.endpoints()[0], third.endpoints()[0]);
+			assertEquals(3, third.endpoints().length);
+			assertEquals("c", third.endpoints()[1].name());
+			assertEquals(new document25.Endpoint("d", "http://b", 9), third.endpoints()[2]);
+		}
+	}
+
+	@Test
+	public void incrementalRebindFailureKeepsResult() throws Exception {
+		final var xmlDoc = """
+				<config>
+					<limits><connections>10</connections><idle>PT30S</idle></limits>
+					<endpoints/>
+				</config>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		try (final var binding = binder.BindIncrementally(dom, document25.class)) {
+			final var first = binding.result();
+			final var connections = dom.getElementsByTagName("connections").item(0);
+			connections.setTextContent("many");
+
+			assertThrows(BinderException.class, binding::rebind);
+			assertSame(first, binding.result());
+
+			connections.setTextContent("20");
+			assertEquals(20, binding.rebind().config.limits().connections());
+		}
+	}
+
+	@Test
+	public void columns() throws Exception {
+		final var xmlDoc = new StringBuilder("<ticks><header>skipped</header>");
+		for (int i = 0; i < 3000; i++) {
+			xmlDoc.append("<tick ts=\"%d\" px=\"%d.5\"><venue>V%d</venue></tick>".formatted(i, i, i % 3));
+		}
+		xmlDoc.append("</ticks>");
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc.toString())));
+
+		final var heapTable = binder.BindColumns(dom, Tick.class);
+		try (final var arena = Arena.ofConfined()) {
+			final var offHeapTable = binder.BindColumns(dom, "tick", Tick.class, arena);
+
+			for (final var table : List.of(heapTable, offHeapTable)) {
+				assertEquals(3000, table.rowCount());
+				assertEquals(3, table.columns().size());
+				final var ts = table.column("ts");
+				final var px = table.column("px");
+				final var venue = table.column("venue");
+				assertTrue(ts.isPrimitive());
+				assertFalse(venue.isPrimitive());
+				assertEquals(2999L, ts.getLong(2999));
+				assertEquals(10.5, px.getDouble(10));
+				assertEquals("V2", venue.get(2));
+				assertEquals(new Tick(7, 7.5, "V1"), table.row(7));
+				assertEquals(3000L * 8, px.segment().byteSize());
+				assertEquals(2999.5, px.segment().getAtIndex(ValueLayout.JAVA_DOUBLE, 2999));
+				assertThrows(IllegalStateException.class, () -> px.getLong(0));
+				assertThrows(IndexOutOfBoundsException.class, () -> ts.getLong(3000));
+			}
+			assertTrue(offHeapTable.column("ts").segment().isNative());
+			assertFalse(heapTable.column("ts").segment().isNative());
+		}
+	}
+
+	@Test
+	public void gzipColumns() throws Exception {
+		final var xmlDoc = new StringBuilder("<ticks>");
+		for (int i = 0; i < 5000; i++) {
+			xmlDoc.append("<tick ts=\"%d\" px=\"%d.25\"><venue>V</venue></tick>".formatted(i, i));
+		}
+		xmlDoc.append("</ticks>");
+		final var compressed = new ByteArrayOutputStream();
+		try (final var gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(xmlDoc.toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		try (final var arena = Arena.ofConfined()) {
+			final var table = binder.BindGzipColumns(new ByteArrayInputStream(compressed.toByteArray()), "tick", Tick.class, arena);
+
+			assertEquals(5000, table.rowCount());
+			final var ts = table.column("ts");
+			for (int i = 0; i < table.rowCount(); i++) {
+				assertEquals(i, ts.getLong(i));
+			}
+			assertEquals(4999.25, table.column("px").getDouble(4999));
+		}
+	}
+
+	public static class document26 {
+		public enum Side {BUY, SELL}
+		public record Fill(@XMLFromAttribute long qty, BigDecimal px) {}
+		public static class Order {
+			@XMLFromAttribute
+			public UUID id;
+			public Side side;
+			public Instant placed;
+			public ZonedDateTime expires;
+			public Duration ttl;
+			@XMLOptional
+			public String note;
+			public int[] levels;
+			public byte[] signature;
+			@XMLArrayElementName("fill")
+			public Fill[] fills;
+			public document19.Payload payload;
+		}
+		public Order order;
+	}
+	@Test
+	public void snapshots() throws Exception {
+		final var xmlDoc = """
+				<order id="6f1c2a7e-3b4d-4e5f-8a9b-0c1d2e3f4a5b">
+					<side>SELL</side>
+					<placed>2024-05-01T10:15:30.123Z</placed>
+					<expires>2024-05-02T10:00:00+02:00</expires>
+					<ttl>PT1H30M</ttl>
+					<levels><int>1</int><int>-2</int><int>3</int></levels>
+					<signature>AAECAwQ=</signature>
+					<fills><fill qty="100"><px>12.50</px></fill><fill qty="7"><px>12.75</px></fill></fills>
+					<q><bid>1.5</bid><ask>1.75</ask></q>
+				</order>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+		final var bound = binder.Bind(dom, document26.class);
+
+		final var snapshot = new ByteArrayOutputStream();
+		binder.WriteSnapshot(bound, snapshot);
+		final var order = new Binder().ReadSnapshot(new ByteArrayInputStream(snapshot.toByteArray()), document26.class).order;
+
+		assertEquals(UUID.fromString("6f1c2a7e-3b4d-4e5f-8a9b-0c1d2e3f4a5b"), order.id);
+		assertEquals(document26.Side.SELL, order.side);
+		assertEquals(Instant.parse("2024-05-01T10:15:30.123Z"), order.placed);
+		assertEquals(ZonedDateTime.parse("2024-05-02T10:00:00+02:00"), order.expires);
+		assertEquals(Duration.ofMinutes(90), order.ttl);
+		assertNull(order.note);
+		assertArrayEquals(new int[]{1, -2, 3}, order.levels);
+		assertArrayEquals(new byte[]{0, 1, 2, 3, 4}, order.signature);
+		assertArrayEquals(bound.order.fills, order.fills);
+		assertEquals(2, order.fills[0].px().scale());
+		assertEquals(new document19.Quote(1.5, 1.75), order.payload);
+		assertTrue(snapshot.size() < xmlDoc.length());
+
+		final var truncated = new ByteArrayInputStream(snapshot.toByteArray(), 0, snapshot.size() - 1);
+		assertThrows(BinderException.class, () -> binder.ReadSnapshot(truncated, document26.class));
+		final var otherClass = new ByteArrayInputStream(snapshot.toByteArray());
+		assertThrows(BinderException.class, () -> binder.ReadSnapshot(otherClass, document25.class));
+	}
+
+	public static class document34 {
+		public record Person(@XMLFromAttribute @XMLId String id, Team team) {}
+		public static class Team {
+			@XMLFromAttribute
+			@XMLIdRef
+			public Person lead;
+		}
+		public Person person;
+	}
+	@Test
+	public void snapshotsKeepSharedInstances() throws Exception {
+		final var xmlDoc = """
+				<graph>
+					<teams>
+						<team id="t1" lead="p1"><members><member>p1</member><member>p2</member></members></team>
+						<team id="t2" lead="p2" parent="t1"><members/></team>
+					</teams>
+					<people>
+						<person id="p1"><name>Ann</name></person>
+						<person id="p2"><name>Bob</name></person>
+					</people>
+					<assignments/>
+				</graph>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+		final var snapshot = new ByteArrayOutputStream();
+		binder.WriteSnapshot(binder.Bind(dom, document23.class), snapshot);
+
+		final var graph = binder.ReadSnapshot(new ByteArrayInputStream(snapshot.toByteArray()), document23.class).graph;
+
+		assertEquals(new document23.Person("p1", "Ann"), graph.people[0]);
+		assertSame(graph.people[0], graph.teams[0].lead);
+		assertSame(graph.people[0], graph.teams[0].members[0]);
+		assertSame(graph.people[1], graph.teams[0].members[1]);
+		assertSame(graph.people[1], graph.teams[1].lead);
+		assertSame(graph.teams[0], graph.teams[1].parent);
+
+		// A record on a reference cycle would be written twice, and read back as two different instances
+		final var cycle = binder.Bind(new StringReader("<person id=\"p1\"><team lead=\"p1\"/></person>"), document34.class);
+		assertSame(cycle.person, cycle.person.team().lead);
+		assertThrows(BinderException.class, () -> binder.WriteSnapshot(cycle, new ByteArrayOutputStream()));
+	}
+
+	public static class document27 {
+		public record Item(String name, int count) {}
+		public Item item;
+	}
+	public static class document28 {
+		public record Item(String name, long count) {}
+		public Item item;
+	}
+	@Test
+	public void snapshotsCached() throws Exception {
+		final var dir = Files.createTempDirectory("snapshots");
+		final var xmlFile = dir.resolve("item.xml");
+		final var snapshotFile = dir.resolve("item.bin");
+		Files.writeString(xmlFile, "<item><name>a</name><count>1</count></item>");
+
+		assertEquals(new document27.Item("a", 1), binder.BindCached(xmlFile, snapshotFile, document27.class).item);
+		assertTrue(Files.isRegularFile(snapshotFile));
+
+		// A document of the same size and modification time is read from the snapshot
+		final var modified = Files.getLastModifiedTime(xmlFile);
+		Files.writeString(xmlFile, "<item><name>b</name><count>2</count></item>");
+		Files.setLastModifiedTime(xmlFile, modified);
+		assertEquals(new document27.Item("a", 1), binder.BindCached(xmlFile, snapshotFile, document27.class).item);
+
+		// A changed document is bound again
+		Files.setLastModifiedTime(xmlFile, FileTime.fromMillis(modified.toMillis() + 1000));
+		assertEquals(new document27.Item("b", 2), binder.BindCached(xmlFile, snapshotFile, document27.class).item);
+
+		// A changed class is bound again
+		assertEquals(new document28.Item("b", 2), binder.BindCached(xmlFile, snapshotFile, document28.class).item);
+		assertEquals(new document28.Item("b", 2), new Binder().BindCached(xmlFile, snapshotFile, document28.class).item);
+
+		// A corrupted snapshot is replaced
+		Files.write(snapshotFile, new byte[]{1, 2, 3});
+		assertEquals(new document28.Item("b", 2), binder.BindCached(xmlFile, snapshotFile, document28.class).item);
+		try (final var input = Files.newInputStream(snapshotFile)) {
+			assertEquals(new document28.Item("b", 2), binder.ReadSnapshot(input, document28.class).item);
+		}
+
+		try (final var files = Files.list(dir)) {
+			assertEquals(2, files.count());
+		}
+	}
+
+	public static class document35 {
+		public record Series(String name, long[] values) {}
+		public Series series;
+	}
+	@Test
+	public void snapshotsCorruptedLengths() throws Exception {
+		final var dir = Files.createTempDirectory("snapshots");
+		final var xmlFile = dir.resolve("series.xml");
+		final var snapshotFile = dir.resolve("series.bin");
+		Files.writeString(xmlFile, "<series><name>s</name><values><long>1</long><long>2</long><long>3</long></values></series>");
+		binder.BindCached(xmlFile, snapshotFile, document35.class);
+
+		// The header is followed by the source key, the tags of the root, the record and the name, the name, and the tag of the array
+		final var valid = Files.readAllBytes(snapshotFile);
+		final var keyOffset = 16;
+		final var arrayOffset = keyOffset + 4 + ByteBuffer.wrap(valid).getInt(keyOffset) + 3 + 4 + 1 + 1;
+		assertEquals(3, ByteBuffer.wrap(valid).getInt(arrayOffset));
+
+		for (final var offset : new int[]{keyOffset, arrayOffset}) {
+			final var corrupted = valid.clone();
+			ByteBuffer.wrap(corrupted).putInt(offset, 0x7ffffff0);
+			Files.write(snapshotFile, corrupted);
+			final var series = binder.BindCached(xmlFile, snapshotFile, document35.class).series;
+			assertEquals("s", series.name());
+			assertArrayEquals(new long[]{1, 2, 3}, series.values());
+			assertArrayEquals(valid, Files.readAllBytes(snapshotFile));
+		}
+	}
+
+	public static class document36 {
+		public record Attachment(String name, InputStream data) {}
+		public String title;
+		public Attachment[] attachments;
+	}
+	@Test
+	public void snapshotsCachedUnsupportedTypes() throws Exception {
+		final var dir = Files.createTempDirectory("snapshots");
+		final var xmlFile = dir.resolve("mail.xml");
+		final var snapshotFile = dir.resolve("mail.bin");
+		// The document isn't even parsed, since no snapshot of the class could be written after binding it
+		Files.writeString(xmlFile, "<mail><title>");
+
+		final var e = assertThrows(BinderException.class, () -> binder.BindCached(xmlFile, snapshotFile, document36.class));
+		assertTrue(e.getMessage().contains("cannot be written to a snapshot"));
+		assertFalse(Files.exists(snapshotFile));
+	}
+
+	public static class document29 {
+		public record Link(@XMLFromAttribute String href, @XMLPath("target/@id") String targetId) {}
+		public Link link;
+	}
+	@Test
+	public void namespacesPrefixedAttributes() throws Exception {
+		final var plain = "<link href=\"a\"><target id=\"t\"/></link>";
+		final var prefixed = """
+				<link xmlns:x="urn:x" xmlns:href="urn:declaration-only" x:href="a">
+					<target xmlns:y="urn:y" y:id="t"/>
+				</link>
+				""";
+
+		for (final var xmlDoc : new String[]{plain, prefixed}) {
+			assertEquals(new document29.Link("a", "t"), binder.Bind(new StringReader(xmlDoc), document29.class).link, xmlDoc);
+		}
+	}
+
+	public static class document30 {
+		public static sealed class Shape permits Circle {
+			@XMLFromAttribute
+			public String color;
+		}
+		public static final class Circle extends Shape {
+			@XMLFromAttribute
+			public double radius;
+		}
+		public sealed interface Node permits Branch {}
+		public static sealed class Branch implements Node permits Leaf {
+			@XMLFromAttribute
+			public int depth;
+		}
+		public static final class Leaf extends Branch {}
+
+		@XMLDiscriminator("kind")
+		public static sealed class Figure permits Square {
+			@XMLFromAttribute
+			public String color;
+		}
+		@XMLTypeName("square")
+		public static final class Square extends Figure {}
+
+		public static class Drawing {
+			@XMLArrayElementName("shape")
+			public Shape[] shapes;
+			public Node node;
+			public Figure figure;
+		}
+		public Drawing drawing;
+	}
+	@Test
+	public void sealedTypesConcreteSealedClass() throws Exception {
+		final var xmlDoc = """
+				<drawing>
+					<shapes><shape color="red"/><circle color="blue" radius="2"/></shapes>
+					<branch depth="3"/>
+					<figure kind="figure" color="green"/>
+				</drawing>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		final var drawing = binder.Bind(dom, document30.class).drawing;
+
+		assertEquals(document30.Shape.class, drawing.shapes[0].getClass());
+		assertEquals("red", drawing.shapes[0].color);
+		final var circle = assertInstanceOf(document30.Circle.class, drawing.shapes[1]);
+		assertEquals(2, circle.radius);
+		final var branch = assertInstanceOf(document30.Branch.class, drawing.node);
+		assertEquals(document30.Branch.class, branch.getClass());
+		assertEquals(3, branch.depth);
+		assertEquals(document30.Figure.class, drawing.figure.getClass());
+		assertEquals("green", drawing.figure.color);
+	}
+
+	public static class document31 {
+		public record Attachment(@XMLFromAttribute String name, InputStream data) {}
+		public record Tag(String value) {}
+		public record Message(String subject, Attachment attachment, Tag tag, @XMLRaw String raw) {}
+		public Message message;
+	}
+	@Test
+	public void incrementalRebindStreams() throws Exception {
+		final var xmlDoc = """
+				<message>
+					<subject>a</subject>
+					<attachment name="x"><data>AQID</data></attachment>
+					<tag><value>t</value></tag>
+					<raw><b>bold</b></raw>
+				</message>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		try (final var binding = binder.BindIncrementally(dom, document31.class)) {
+			final var first = binding.result().message;
+			assertArrayEquals(new byte[]{1, 2, 3}, first.attachment().data().readAllBytes());
+
+			dom.getElementsByTagName("subject").item(0).getFirstChild().setNodeValue("b");
+			final var second = binding.rebind().message;
+
+			assertEquals("b", second.subject());
+			assertSame(first.tag(), second.tag());
+			assertNotSame(first.attachment(), second.attachment());
+			assertArrayEquals(new byte[]{1, 2, 3}, second.attachment().data().readAllBytes());
+			assertEquals("<raw><b>bold</b></raw>", second.raw());
+		}
+	}
+
+	public static class document32 {
+		public static class Node {
+			@XMLFromAttribute
+			@XMLId
+			public String id;
+			@XMLFromAttribute
+			@XMLIdRef
+			@XMLOptional
+			public Node next;
+		}
+		public record Chain(@XMLFromAttribute long seq, Node first, Node second) {}
+	}
+	@Test
+	public void columnsIdReferences() throws Exception {
+		final var xmlDoc = """
+				<chains>
+					<chain seq="1"><first id="a" next="b"/><second id="b"/></chain>
+					<chain seq="2"><first id="a"/><second id="b" next="a"/></chain>
+				</chains>
+				""";
+		final var dom = domParser.parse(new InputSource(new StringReader(xmlDoc)));
+
+		for (int i = 0; i < 2; i++) {
+			final var table = binder.BindColumns(dom, document32.Chain.class);
+
+			final var firstRow = table.row(0);
+			assertSame(firstRow.second(), firstRow.first().next);
+			final var secondRow = table.row(1);
+			assertNull(secondRow.first().next);
+			assertSame(secondRow.first(), secondRow.second().next);
+		}
+
+		final var invalid = domParser.parse(new InputSource(new StringReader("<chains><chain seq=\"1\"><first id=\"a\" next=\"c\"/><second id=\"b\"/></chain></chains>")));
+		assertThrows(BinderException.class, () -> binder.BindColumns(invalid, document32.Chain.class));
+	}
+
+	public static class document33 {
+		public record Body(@XMLName("m:price") double price, @XMLFromAttribute @XMLName("m:currency") String currency) {}
+		public static class Envelope {
+			@XMLName("soap:Body")
+			public Body body;
+		}
+		@XMLName("soap:Envelope")
+		public Envelope envelope;
+	}
+	@Test
+	public void namespacesPrefixedNames() throws Exception {
+		final var xmlDoc = """
+				<soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/" xmlns:m="urn:m">
+					<soap:Body m:currency="EUR"><m:price>1.5</m:price></soap:Body>
+				</soap:Envelope>
+				""";
+		final var expected = new document33.Body(1.5, "EUR");
+
+		assertEquals(expected, binder.Bind(new StringReader(xmlDoc), document33.class).envelope.body);
+		assertEquals(expected, binder.Bind(new ByteArrayInputStream(xmlDoc.getBytes(StandardCharsets.UTF_8)), document33.class).envelope.body);
+		assertEquals(expected, binder.Bind(domParser.parse(new InputSource(new StringReader(xmlDoc))), document33.class).envelope.body);
+	}
 }
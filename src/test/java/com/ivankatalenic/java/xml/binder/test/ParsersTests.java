@@ -0,0 +1,108 @@
+package com.ivankatalenic.java.xml.binder.test;
+
+import com.ivankatalenic.java.xml.binder.Binder;
+import com.ivankatalenic.java.xml.binder.BinderException;
+import com.ivankatalenic.java.xml.binder.parsers.FastDecimalParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParsersTests {
+	private static final String[] EDGE_CASES = {
+			"0", "-0", "+0", "0.0e10", "-0.0", "1", "-1", "0.1", "1.5", " 1.5 ", "\t2\n", ".5", "5.", "1e5", "1E-5",
+			"4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324", "2.2250738585072011e-308", "2.2250738585072012e-308",
+			"1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308", "1e-400", "1e400",
+			"9007199254740993", "9007199254740992.5", "1e23", "8.589973e9", "1.4e-45", "7e-46", "3.4028235e38", "3.4028236e38",
+			"0.000000000000000000000000000001", "1.00000000000000000000000001", "9999999999999999999", "99999999999999999999",
+			"1e2147483648", "1e-2147483649", "NaN", "-Infinity", "0x1p3", "1.5f", "1d",
+	};
+	private static final String[] INVALID = {"", "  ", "-", "+", ".", "e5", "1e", "1e+", "1..5", "1.5.", "1,5", "--1", "1 5"};
+
+	private Binder binder;
+
+	@BeforeEach
+	public void initBinder() {
+		binder = new Binder();
+	}
+
+	private static void assertSameAsJdk(String text) {
+		assertEquals(Double.doubleToRawLongBits(Double.parseDouble(text)), Double.doubleToRawLongBits(FastDecimalParser.parseDouble(text)), text);
+		assertEquals(Float.floatToRawIntBits(Float.parseFloat(text)), Float.floatToRawIntBits(FastDecimalParser.parseFloat(text)), text);
+	}
+
+	@Test
+	public void fastDecimalEdgeCases() {
+		for (final var text : EDGE_CASES) {
+			assertSameAsJdk(text);
+		}
+	}
+
+	@Test
+	public void fastDecimalInvalid() {
+		for (final var text : INVALID) {
+			assertThrows(NumberFormatException.class, () -> FastDecimalParser.parseDouble(text));
+			assertThrows(NumberFormatException.class, () -> FastDecimalParser.parseFloat(text));
+		}
+	}
+
+	@Test
+	public void fastDecimalRandom() {
+		final var random = new Random(42);
+		for (int i = 0; i < 200_000; i++) {
+			final var bits = Double.longBitsToDouble(random.nextLong());
+			if (Double.isFinite(bits)) {
+				assertSameAsJdk(Double.toString(bits));
+				assertSameAsJdk(new BigDecimal(bits).round(new MathContext(1 + random.nextInt(19))).toString());
+			}
+			final var price = Math.round(random.nextDouble() * 1e8) / 1e4;
+			assertSameAsJdk(Double.toString(price));
+			assertSameAsJdk(String.format("%.6e", random.nextDouble() * Math.pow(10, random.nextInt(80) - 40)));
+			assertSameAsJdk(Float.toString(Float.intBitsToFloat(random.nextInt() & 0x7F7FFFFF)));
+		}
+	}
+
+	@Test
+	public void fastDecimalCharacterRange() {
+		final var text = "price=12.75;";
+
+		assertEquals(12.75, FastDecimalParser.parseDouble(text, 6, 11));
+		assertEquals(12.75f, FastDecimalParser.parseFloat(text, 6, 11));
+	}
+
+	public static class document1 {
+		public static class A {
+			public BigDecimal decimal;
+			public BigInteger integer;
+			public double real;
+		}
+		public A root;
+	}
+	@Test
+	public void bigNumbers() throws Exception {
+		final var random = new Random(42);
+		final var decimals = new String[]{"0", "-0.00", "1.50", "+12.345", "1E+3", "-7.5e-10", ".5", "5.", "123456789012345678", "12345678901234567890.123", "1e2147483647"};
+		for (final var decimal : decimals) {
+			final var integer = new BigInteger(64 + random.nextInt(64), random).subtract(BigInteger.ONE.shiftLeft(70)).toString();
+			final var xmlDoc = "<root><decimal> %s </decimal><integer>%s</integer><real>%s</real></root>".formatted(decimal, integer, decimal);
+
+			final var doc = binder.Bind(new StringReader(xmlDoc), document1.class);
+
+			assertEquals(new BigDecimal(decimal), doc.root.decimal);
+			assertEquals(new BigDecimal(decimal).scale(), doc.root.decimal.scale());
+			assertEquals(new BigInteger(integer), doc.root.integer);
+			assertEquals(Double.parseDouble(decimal), doc.root.real);
+		}
+	}
+
+	@Test
+	public void invalidBigDecimal() {
+		assertThrows(BinderException.class, () -> binder.Bind(new StringReader("<root><decimal>1.2.3</decimal><integer>1</integer><real>1</real></root>"), document1.class));
+	}
+}